@@ -0,0 +1,178 @@
+package com.example.account;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트(H2 + embedded Redis)를 띄우고 데이터를 적재한다.
+ * 적재 데이터는 시퀀스 범위와 겹치지 않도록 SEED_ID_OFFSET 이후의 id 를 쓴다.
+ */
+public final class BenchmarkApplication {
+    public static final long SEED_ID_OFFSET = 1_000_000_000L;
+    public static final String SEED_ACCOUNT_NUMBER_PREFIX = "9";
+    private static final int CHUNK_SIZE = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN"
+                )
+                .properties(properties)
+                .run();
+    }
+
+    public static void seedUsers(JdbcTemplate jdbcTemplate, int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        batchInsert(jdbcTemplate,
+                "insert into account_user (id, name, created_at, updated_at) values (?, ?, ?, ?)",
+                count,
+                i -> new Object[]{SEED_ID_OFFSET + i, "user" + i, now, now});
+    }
+
+    /**
+     * 계좌 i 는 사용자 (i % userCount) 에게 속하고 계좌번호는 {@link #accountNumber(long)} 이다.
+     */
+    public static void seedAccounts(JdbcTemplate jdbcTemplate, int count, int userCount, long balance) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        batchInsert(jdbcTemplate,
+                "insert into account (id, account_user_id, account_number, account_status, balance, " +
+                        "registered_at, created_at, updated_at, version) values (?, ?, ?, 'IN_USE', ?, ?, ?, ?, 0)",
+                count,
+                i -> new Object[]{
+                        SEED_ID_OFFSET + i, SEED_ID_OFFSET + i % userCount, accountNumber(i), balance, now, now, now
+                });
+    }
+
+    /**
+     * 거래 i 는 계좌 (i % accountCount) 의 USE 성공 거래이고 거래 아이디는 {@link #transactionId(long)} 이다.
+     */
+    public static void seedTransactions(JdbcTemplate jdbcTemplate, int count, int accountCount) {
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        seedTransactions(jdbcTemplate, count, accountCount, i -> base.plusNanos(i * 1_000L));
+    }
+
+    /**
+     * {@link #seedTransactions(JdbcTemplate, int, int)} 와 같되 거래일시를 지난 months 개월에 고르게 흩뿌린다.
+     */
+    public static void seedTransactionsOverMonths(JdbcTemplate jdbcTemplate, int count, int accountCount, int months) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime base = now.minusMonths(months);
+        long spanSeconds = Duration.between(base, now).getSeconds();
+        seedTransactions(jdbcTemplate, count, accountCount, i -> base.plusSeconds(i * spanSeconds / count));
+    }
+
+    private static void seedTransactions(
+            JdbcTemplate jdbcTemplate, int count, int accountCount, Function<Long, LocalDateTime> transactedAt) {
+        batchInsert(jdbcTemplate,
+                "insert into transaction (id, account_id, transaction_type, transaction_result_type, amount, " +
+                        "balance_snapshot, transaction_id, transacted_at, created_at, updated_at) " +
+                        "values (?, ?, 'USE', 'S', 1, 0, ?, ?, ?, ?)",
+                count,
+                i -> {
+                    Timestamp timestamp = Timestamp.valueOf(transactedAt.apply(i));
+                    return new Object[]{
+                            SEED_ID_OFFSET + i, SEED_ID_OFFSET + i % accountCount, transactionId(i),
+                            timestamp, timestamp, timestamp
+                    };
+                });
+    }
+
+    /**
+     * {@link #seedAccounts} 로 만든 계좌(잔액 balance)에 원장을 적재한다. 거래 i 는 계좌 (i % accountCount) 의
+     * (i / accountCount + 1) 번째 USE 성공 거래(금액 1)이고, 순번 0 과 checkpointInterval 배수마다 checkpoint 를 둔다.
+     * 계좌의 잔액과 순번은 마지막 거래에 맞춘다.
+     */
+    public static void seedLedger(JdbcTemplate jdbcTemplate, int count, int accountCount, long balance,
+                                  int checkpointInterval) {
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        batchInsert(jdbcTemplate,
+                "insert into transaction (id, account_id, sequence_no, transaction_type, transaction_result_type, " +
+                        "amount, balance_snapshot, transaction_id, transacted_at, created_at, updated_at) " +
+                        "values (?, ?, ?, 'USE', 'S', 1, ?, ?, ?, ?, ?)",
+                count,
+                i -> {
+                    long sequence = i / accountCount + 1;
+                    Timestamp transactedAt = Timestamp.valueOf(base.plusNanos(i * 1_000L));
+                    return new Object[]{
+                            SEED_ID_OFFSET + i, SEED_ID_OFFSET + i % accountCount, sequence, balance - sequence,
+                            transactionId(i), transactedAt, transactedAt, transactedAt
+                    };
+                });
+        long maxSequence = ((long) count + accountCount - 1) / accountCount;
+        int checkpointsPerAccount = (int) (maxSequence / checkpointInterval) + 1;
+        batchInsert(jdbcTemplate,
+                "insert into balance_checkpoint (account_id, sequence_no, balance) values (?, ?, ?)",
+                accountCount * checkpointsPerAccount,
+                i -> {
+                    long account = i % accountCount;
+                    long sequence = i / accountCount * checkpointInterval;
+                    return sequence > entries(count, accountCount, account)
+                            ? null
+                            : new Object[]{SEED_ID_OFFSET + account, sequence, balance - sequence};
+                });
+        batchInsert(jdbcTemplate,
+                "update account set ledger_sequence = ?, balance = ? where id = ?",
+                accountCount,
+                i -> {
+                    long sequence = entries(count, accountCount, i);
+                    return new Object[]{sequence, balance - sequence, SEED_ID_OFFSET + i};
+                });
+    }
+
+    public static long userId(long index) {
+        return SEED_ID_OFFSET + index;
+    }
+
+    public static String accountNumber(long index) {
+        return SEED_ACCOUNT_NUMBER_PREFIX + String.format("%09d", index);
+    }
+
+    public static String transactionId(long index) {
+        return String.format("seed%028d", index);
+    }
+
+    private static long entries(int count, int accountCount, long account) {
+        return count / accountCount + (account < count % accountCount ? 1 : 0);
+    }
+
+    private static void batchInsert(JdbcTemplate jdbcTemplate, String sql, int count, RowFactory rowFactory) {
+        List<Object[]> rows = new ArrayList<>(Math.min(count, CHUNK_SIZE));
+        for (int i = 0; i < count; i++) {
+            Object[] row = rowFactory.row(i);
+            if (row == null) {
+                continue;
+            }
+            rows.add(row);
+            if (rows.size() == CHUNK_SIZE) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private interface RowFactory {
+        /**
+         * null 이면 그 행은 건너뛴다.
+         */
+        Object[] row(long index);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.account.repository;
+
+import com.example.account.BenchmarkApplication;
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인덱스가 걸린 조회(계좌번호, 사용자별 계좌, 거래 아이디)가 테이블 크기와 무관하게 유지되는지 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class AccountLookupBenchmark {
+    @Param({"10000", "1000000"})
+    public int tableSize;
+
+    private int userCount;
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private AccountUserRepository accountUserRepository;
+    private TransactionRepository transactionRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userCount = tableSize / 10;
+        BenchmarkApplication.seedUsers(jdbcTemplate, userCount);
+        BenchmarkApplication.seedAccounts(jdbcTemplate, tableSize, userCount, 1000L);
+        BenchmarkApplication.seedTransactions(jdbcTemplate, tableSize, tableSize);
+        accountRepository = context.getBean(AccountRepository.class);
+        accountUserRepository = context.getBean(AccountUserRepository.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Account> findByAccountNumber() {
+        return accountRepository.findByAccountNumber(
+                BenchmarkApplication.accountNumber(ThreadLocalRandom.current().nextInt(tableSize)));
+    }
+
+    @Benchmark
+    public Optional<Long> findIdByAccountNumber() {
+        return accountRepository.findIdByAccountNumber(
+                BenchmarkApplication.accountNumber(ThreadLocalRandom.current().nextInt(tableSize)));
+    }
+
+    @Benchmark
+    public List<Account> findByAccountUser() {
+        return accountRepository.findByAccountUser(accountUserRepository.findById(
+                BenchmarkApplication.userId(ThreadLocalRandom.current().nextInt(userCount))).orElseThrow());
+    }
+
+    @Benchmark
+    public Optional<Transaction> findByTransactionId() {
+        return transactionRepository.findByTransactionId(
+                BenchmarkApplication.transactionId(ThreadLocalRandom.current().nextInt(tableSize)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.account.repository;
+
+import com.example.account.BenchmarkApplication;
+import com.example.account.service.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 아이디 종류에 따른 거래 insert 처리량. 무작위 UUID 는 transaction_id 인덱스의 아무 곳에나 들어가고
+ * 시각 순 아이디는 인덱스 끝에 붙는다. 테이블이 클수록 차이가 커지므로 이미 tableSize 건이 있는 상태에서 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class TransactionIdInsertBenchmark {
+    private static final int USER_COUNT = 100;
+    private static final int ACCOUNT_COUNT = 1_000;
+    private static final int BATCH_SIZE = 100;
+    private static final String INSERT_SQL =
+            "insert into transaction (id, account_id, transaction_type, transaction_result_type, amount, " +
+                    "balance_snapshot, transaction_id, transacted_at) values (?, ?, 'USE', 'S', 1, 0, ?, ?)";
+
+    @Param({"random-uuid", "time-ordered"})
+    public String idType;
+
+    @Param({"1000000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionIdGenerator generator;
+    private final AtomicLong nextId = new AtomicLong(2 * BenchmarkApplication.SEED_ID_OFFSET);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        generator = context.getBean(TransactionIdGenerator.class);
+        BenchmarkApplication.seedUsers(jdbcTemplate, USER_COUNT);
+        BenchmarkApplication.seedAccounts(jdbcTemplate, ACCOUNT_COUNT, USER_COUNT, 1_000_000L);
+        // 기존 행의 아이디도 같은 방식으로 만들어야 인덱스 모양이 실제와 같다.
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < tableSize; i += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch(rows));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 거래 BATCH_SIZE 건을 한 번에 넣는다.
+     */
+    @Benchmark
+    public int[] insertBatch() {
+        return jdbcTemplate.batchUpdate(INSERT_SQL, batch(new ArrayList<>(BATCH_SIZE)));
+    }
+
+    private List<Object[]> batch(List<Object[]> rows) {
+        rows.clear();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long id = nextId.getAndIncrement();
+            rows.add(new Object[]{
+                    id, BenchmarkApplication.SEED_ID_OFFSET + id % ACCOUNT_COUNT, transactionId(), now
+            });
+        }
+        return rows;
+    }
+
+    private String transactionId() {
+        return "random-uuid".equals(idType)
+                ? UUID.randomUUID().toString().replace("-", "")
+                : generator.next();
+    }
+}
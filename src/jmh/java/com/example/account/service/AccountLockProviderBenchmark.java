@@ -0,0 +1,53 @@
+package com.example.account.service;
+
+import com.example.account.BenchmarkApplication;
+import com.example.account.exception.AccountException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 락 획득/해제 한 쌍의 비용. redis 는 embedded Redis 를 사용한다.
+ * 스레드 수는 -PjmhThreads 로 바꾼다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class AccountLockProviderBenchmark {
+    @Param({"redis", "local", "hybrid"})
+    public String provider;
+
+    @Param({"1", "1024"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountLockProvider accountLockProvider;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("account.lock.provider=" + provider);
+        accountLockProvider = context.getBean(AccountLockProvider.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean lockAndUnlock() {
+        String accountNumber = BenchmarkApplication.accountNumber(ThreadLocalRandom.current().nextInt(accounts));
+        try {
+            accountLockProvider.lock(accountNumber);
+        } catch (AccountException e) {
+            return false;
+        }
+        accountLockProvider.unlock(accountNumber);
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.account.service;
+
+import com.example.account.BenchmarkApplication;
+import com.example.account.domain.Account;
+import com.example.account.dto.AccountDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌 생성과 계좌번호 발급 비용. 사용자당 계좌 10개 제한에 걸리지 않도록
+ * 호출마다 다른 사용자를 쓰고, 반복이 끝나면 생성한 계좌를 지운다.
+ * latestAccountNumber 는 비교 기준으로, Redis 구간 발급 전의 "가장 최근 계좌 + 1" 방식이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class AccountServiceBenchmark {
+    private static final int USER_COUNT = 200_000;
+
+    @Param({"10000", "1000000"})
+    public int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private AccountService accountService;
+    private AccountNumberAllocator accountNumberAllocator;
+    private EntityManagerFactory entityManagerFactory;
+    private final AtomicLong nextUser = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkApplication.seedUsers(jdbcTemplate, USER_COUNT);
+        BenchmarkApplication.seedAccounts(jdbcTemplate, tableSize, USER_COUNT, 0L);
+        accountService = context.getBean(AccountService.class);
+        accountNumberAllocator = context.getBean(AccountNumberAllocator.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCreatedAccounts() {
+        jdbcTemplate.update("delete from account where id < ?", BenchmarkApplication.SEED_ID_OFFSET);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountDto createAccount() {
+        long user = nextUser.getAndIncrement() % USER_COUNT;
+        return accountService.createAccount(BenchmarkApplication.userId(user), 1000L);
+    }
+
+    @Benchmark
+    public String nextAccountNumber() {
+        return accountNumberAllocator.next();
+    }
+
+    /**
+     * 이전 방식(findFirstByOrderByIdDesc 로 가장 최근 계좌를 읽고 + 1). 번호마다 DB 를 한 번 읽는다.
+     */
+    @Benchmark
+    public String latestAccountNumber() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select a from Account a order by a.id desc", Account.class)
+                    .setMaxResults(1)
+                    .getResultStream()
+                    .findFirst()
+                    .map(account -> String.valueOf(Long.parseLong(account.getAccountNumber()) + 1))
+                    .orElse("1000000000");
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.account.service;
+
+import com.example.account.BenchmarkApplication;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 소수의 hot 계좌에 여러 스레드가 동시에 잔액 사용을 요청할 때
+ * 락 모드(@AccountLock), optimistic 모드(조건부 UPDATE), single-writer 모드(계좌별 단일 쓰기 스레드)의
+ * 처리량과 실패 수를 비교한다. single-writer 모드에서 lockProvider 는 쓰이지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(16)
+@Fork(1)
+public class BalanceContentionBenchmark {
+    private static final int USER_COUNT = 1;
+
+    @Param({"lock", "optimistic", "single-writer"})
+    public String mode;
+
+    @Param({"redis", "local"})
+    public String lockProvider;
+
+    @Param({"1", "4"})
+    public int hotAccounts;
+
+    private ConfigurableApplicationContext context;
+    private TransactionDispatcher transactionDispatcher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean singleWriter = "single-writer".equals(mode);
+        context = BenchmarkApplication.start(
+                "account.balance.mode=" + (singleWriter ? "lock" : mode),
+                "account.execution.mode=" + (singleWriter ? "single-writer" : "sync"),
+                "account.lock.provider=" + lockProvider);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkApplication.seedUsers(jdbcTemplate, USER_COUNT);
+        BenchmarkApplication.seedAccounts(jdbcTemplate, hotAccounts, USER_COUNT, Long.MAX_VALUE / 2);
+        transactionDispatcher = context.getBean(TransactionDispatcher.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long succeeded;
+        public long lockFailed;
+        public long otherFailed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            lockFailed = 0;
+            otherFailed = 0;
+        }
+    }
+
+    @Benchmark
+    public void useHotAccount(Outcomes outcomes) {
+        int account = ThreadLocalRandom.current().nextInt(hotAccounts);
+        try {
+            transactionDispatcher.useBalance(new UseBalance.Request(
+                    BenchmarkApplication.userId(0), BenchmarkApplication.accountNumber(account), 10L)).join();
+            outcomes.succeeded++;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AccountException
+                    && ((AccountException) e.getCause()).getErrorCode() == ErrorCode.ACCOUNT_TRANSACTION_LOCK) {
+                outcomes.lockFailed++;
+            } else {
+                outcomes.otherFailed++;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.account.service;
+
+import com.example.account.BenchmarkApplication;
+import com.example.account.dto.LedgerVerificationReport;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 원장 전체 검증 한 번에 걸리는 시간. 초당 처리 거래 수는 entries / 측정값 이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class LedgerVerifierBenchmark {
+    private static final int USER_COUNT = 1_000;
+    private static final int ACCOUNT_COUNT = 10_000;
+    private static final int CHECKPOINT_INTERVAL = 1_000;
+
+    @Param({"1000000", "10000000"})
+    public int entries;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private ConfigurableApplicationContext context;
+    private LedgerVerifier ledgerVerifier;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "account.ledger.checkpoint-interval=" + CHECKPOINT_INTERVAL,
+                "account.ledger.verify-parallelism=" + parallelism,
+                "account.ledger.verify-range-size=" + ACCOUNT_COUNT / 16,
+                "logging.level.com.example.account.service.LedgerVerifier=INFO");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkApplication.seedUsers(jdbcTemplate, USER_COUNT);
+        BenchmarkApplication.seedAccounts(jdbcTemplate, ACCOUNT_COUNT, USER_COUNT, 1_000_000_000L);
+        BenchmarkApplication.seedLedger(jdbcTemplate, entries, ACCOUNT_COUNT, 1_000_000_000L, CHECKPOINT_INTERVAL);
+        ledgerVerifier = context.getBean(LedgerVerifier.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LedgerVerificationReport verify() {
+        LedgerVerificationReport report = ledgerVerifier.verify();
+        if (report.getMismatchCount() > 0) {
+            throw new IllegalStateException("seeded ledger must be consistent: " + report.getMismatches());
+        }
+        return report;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.account.service;
+
+import com.example.account.BenchmarkApplication;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryCondition;
+import com.example.account.dto.TransactionHistoryResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 읽기 처리량이 replica 수에 따라 늘어나는지 본다. 각 풀의 연결 수를 POOL_SIZE 로 묶어 두고
+ * 스레드 수를 그보다 크게 주면(-PjmhThreads=32) 읽기 용량은 replica 풀 수에 비례한다.
+ * replica 는 primary 와 같은 H2 인스턴스를 가리키므로 DB 자체의 용량은 늘지 않는다. 실제 확장은 별도 호스트에서 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ReplicaRoutingBenchmark {
+    private static final int USER_COUNT = 1_000;
+    private static final int ACCOUNT_COUNT = 10_000;
+    private static final int TRANSACTION_COUNT = 1_000_000;
+    private static final int POOL_SIZE = 4;
+
+    @Param({"0", "1", "2", "4"})
+    public int replicas;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> properties = new ArrayList<>();
+        properties.add("spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE);
+        for (int i = 0; i < replicas; i++) {
+            properties.add("account.datasource.replicas[" + i + "].url=jdbc:h2:mem:test");
+            properties.add("account.datasource.replicas[" + i + "].username=sa");
+            properties.add("account.datasource.replicas[" + i + "].maximum-pool-size=" + POOL_SIZE);
+        }
+        context = BenchmarkApplication.start(properties.toArray(new String[0]));
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkApplication.seedUsers(jdbcTemplate, USER_COUNT);
+        BenchmarkApplication.seedAccounts(jdbcTemplate, ACCOUNT_COUNT, USER_COUNT, 1_000_000L);
+        BenchmarkApplication.seedTransactions(jdbcTemplate, TRANSACTION_COUNT, ACCOUNT_COUNT);
+        transactionService = context.getBean(TransactionService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionHistoryResponse getTransactionHistory() {
+        return transactionService.getTransactionHistory(
+                BenchmarkApplication.accountNumber(ThreadLocalRandom.current().nextInt(ACCOUNT_COUNT)),
+                TransactionHistoryCondition.builder().size(20).build());
+    }
+
+    @Benchmark
+    public TransactionDto queryTransaction() {
+        return transactionService.queryTransaction(
+                BenchmarkApplication.transactionId(ThreadLocalRandom.current().nextInt(TRANSACTION_COUNT)));
+    }
+}
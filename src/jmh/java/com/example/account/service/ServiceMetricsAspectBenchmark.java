@@ -0,0 +1,56 @@
+package com.example.account.service;
+
+import com.example.account.metrics.ServiceMetricsAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * account.service 타이머를 기록하는 aspect 의 호출당 비용.
+ * 같은 대상 객체를 직접 호출한 값과 프록시를 통해 호출한 값의 차이가 오버헤드다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ServiceMetricsAspectBenchmark {
+    private LongUnaryOperator target;
+    private LongUnaryOperator instrumented;
+    private long value;
+
+    /**
+     * aspect 의 pointcut(service 패키지의 @Service)에 걸리는 대상.
+     * 비정적 내부 클래스라 컴포넌트 스캔에는 잡히지 않는다.
+     */
+    @Service
+    class NoopService implements LongUnaryOperator {
+        @Override
+        public long applyAsLong(long operand) {
+            return operand + 1;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        target = new NoopService();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new ServiceMetricsAspect(new SimpleMeterRegistry()));
+        instrumented = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public long direct() {
+        return target.applyAsLong(value++);
+    }
+
+    @Benchmark
+    public long instrumented() {
+        return instrumented.applyAsLong(value++);
+    }
+}
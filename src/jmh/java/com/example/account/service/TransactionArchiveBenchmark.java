@@ -0,0 +1,63 @@
+package com.example.account.service;
+
+import com.example.account.BenchmarkApplication;
+import com.example.account.dto.TransactionDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 이력이 늘어도 거래 확인 지연이 평평한지 본다. 이력을 지난 36개월에 흩뿌린 뒤 archiver 를 돌려
+ * hot 테이블에는 최근 12개월만 남긴다. 최근 거래(hot)와 옮겨진 거래(hot miss 후 archive)를 따로 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class TransactionArchiveBenchmark {
+    private static final int USER_COUNT = 1_000;
+    private static final int ACCOUNT_COUNT = 10_000;
+    private static final int MONTHS = 36;
+
+    @Param({"1000000", "3000000"})
+    public int history;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private int archived;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("account.archive.batch-size=10000");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkApplication.seedUsers(jdbcTemplate, USER_COUNT);
+        BenchmarkApplication.seedAccounts(jdbcTemplate, ACCOUNT_COUNT, USER_COUNT, 1_000_000L);
+        BenchmarkApplication.seedTransactionsOverMonths(jdbcTemplate, history, ACCOUNT_COUNT, MONTHS);
+        // 오래된 거래부터 id 가 매겨졌으므로 archive 로 간 것은 앞쪽 archived 건이다.
+        archived = (int) context.getBean(TransactionArchiver.class).archive(LocalDate.now());
+        transactionService = context.getBean(TransactionService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto queryHotTransaction() {
+        return transactionService.queryTransaction(BenchmarkApplication.transactionId(
+                ThreadLocalRandom.current().nextInt(archived, history)));
+    }
+
+    @Benchmark
+    public TransactionDto queryArchivedTransaction() {
+        return transactionService.queryTransaction(BenchmarkApplication.transactionId(
+                ThreadLocalRandom.current().nextInt(archived)));
+    }
+}
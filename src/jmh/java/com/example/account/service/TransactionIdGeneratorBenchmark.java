@@ -0,0 +1,31 @@
+package com.example.account.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 아이디 발급 비용. 여러 스레드에서 동시에 발급할 때를 보려면 -PjmhThreads=8 처럼 실행한다.
+ * -prof gc 를 붙이면 아이디당 할당량도 비교할 수 있다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(4)
+public class TransactionIdGeneratorBenchmark {
+    private final TransactionIdGenerator generator = new TransactionIdGenerator(1);
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    public String timeOrdered() {
+        return generator.next();
+    }
+}
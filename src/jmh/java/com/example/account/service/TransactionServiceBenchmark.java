@@ -0,0 +1,92 @@
+package com.example.account.service;
+
+import com.example.account.BenchmarkApplication;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryCondition;
+import com.example.account.dto.TransactionHistoryResponse;
+import com.example.account.dto.UseBalance;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잔액 사용/취소/조회 경로. 사용/취소는 @AccountLock 이 걸린 TransactionRequestService 를 호출해 락 비용까지 포함한다.
+ * 취소는 단독으로 반복할 수 없어 사용 + 취소 한 쌍으로 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class TransactionServiceBenchmark {
+    private static final int USER_COUNT = 1_000;
+    private static final int ACCOUNT_COUNT = 10_000;
+
+    @Param({"10000", "1000000"})
+    public int tableSize;
+
+    @Param({"lock", "optimistic"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRequestService transactionRequestService;
+    private TransactionService transactionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("account.balance.mode=" + mode);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkApplication.seedUsers(jdbcTemplate, USER_COUNT);
+        BenchmarkApplication.seedAccounts(jdbcTemplate, ACCOUNT_COUNT, USER_COUNT, 1_000_000_000_000L);
+        BenchmarkApplication.seedTransactions(jdbcTemplate, tableSize, ACCOUNT_COUNT);
+        transactionRequestService = context.getBean(TransactionRequestService.class);
+        transactionService = context.getBean(TransactionService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UseBalance.Response useBalance() {
+        return transactionRequestService.useBalance(useRequest(randomAccount()));
+    }
+
+    @Benchmark
+    public CancelBalance.Response useThenCancelBalance() {
+        int account = randomAccount();
+        UseBalance.Response used = transactionRequestService.useBalance(useRequest(account));
+        return transactionRequestService.cancelBalance(new CancelBalance.Request(
+                used.getTransactionId(), BenchmarkApplication.accountNumber(account), used.getAmount()));
+    }
+
+    @Benchmark
+    public TransactionDto queryTransaction() {
+        return transactionService.queryTransaction(
+                BenchmarkApplication.transactionId(ThreadLocalRandom.current().nextInt(tableSize)));
+    }
+
+    @Benchmark
+    public TransactionHistoryResponse getTransactionHistory() {
+        return transactionService.getTransactionHistory(
+                BenchmarkApplication.accountNumber(randomAccount()),
+                TransactionHistoryCondition.builder().size(20).build());
+    }
+
+    private static int randomAccount() {
+        return ThreadLocalRandom.current().nextInt(ACCOUNT_COUNT);
+    }
+
+    private static UseBalance.Request useRequest(int account) {
+        return new UseBalance.Request(
+                BenchmarkApplication.userId(account % USER_COUNT),
+                BenchmarkApplication.accountNumber(account),
+                100L);
+    }
+}
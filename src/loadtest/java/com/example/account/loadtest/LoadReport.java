@@ -0,0 +1,162 @@
+package com.example.account.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 워커별 {@link Recorder} 를 합쳐 처리량, 지연 백분위, ErrorCode 별 실패 수를 만든다.
+ * 묶음 요청은 요청 수(count)와 건수(items)를 따로 세어 건별 사용과 건당 처리량(items/s)으로 비교한다.
+ */
+public class LoadReport {
+    static final String LOCK_FAILURE = "ACCOUNT_TRANSACTION_LOCK";
+
+    private final Map<String, Object> summary = new LinkedHashMap<>();
+    private final Map<Operation, Map<String, Object>> operations = new EnumMap<>(Operation.class);
+
+    public static LoadReport of(LoadTestConfig config, List<Recorder> recorders, Duration elapsed) {
+        LoadReport report = new LoadReport();
+        double seconds = elapsed.toNanos() / 1e9;
+        long total = 0;
+        long lockFailures = 0;
+        long mutations = 0;
+        Map<Operation, Double> itemThroughputs = new EnumMap<>(Operation.class);
+        Map<String, Long> allErrors = new TreeMap<>();
+
+        for (Operation operation : Operation.values()) {
+            long[] latencies = recorders.stream()
+                    .flatMapToLong(recorder -> Arrays.stream(recorder.latencies(operation)))
+                    .sorted()
+                    .toArray();
+            Map<String, Long> errors = new TreeMap<>();
+            recorders.forEach(recorder -> recorder.errors.get(operation)
+                    .forEach((code, count) -> errors.merge(code, count, Long::sum)));
+            errors.forEach((code, count) -> allErrors.merge(code, count, Long::sum));
+            long errorCount = errors.values().stream().mapToLong(Long::longValue).sum();
+            long items = recorders.stream().mapToLong(recorder -> recorder.items(operation)).sum();
+            itemThroughputs.put(operation, items / seconds);
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", latencies.length);
+            stats.put("throughput", latencies.length / seconds);
+            stats.put("items", items);
+            stats.put("itemThroughput", items / seconds);
+            stats.put("errorRate", items == 0 ? 0.0 : (double) errorCount / items);
+            stats.put("p50Millis", percentileMillis(latencies, 0.50));
+            stats.put("p95Millis", percentileMillis(latencies, 0.95));
+            stats.put("p99Millis", percentileMillis(latencies, 0.99));
+            stats.put("maxMillis", percentileMillis(latencies, 1.0));
+            stats.put("errors", errors);
+            report.operations.put(operation, stats);
+
+            total += latencies.length;
+            if (operation == Operation.USE || operation == Operation.CANCEL || operation == Operation.USE_BATCH) {
+                mutations += items;
+                lockFailures += errors.getOrDefault(LOCK_FAILURE, 0L);
+            }
+        }
+
+        report.summary.put("config", config.toString());
+        report.summary.put("elapsedSeconds", seconds);
+        report.summary.put("requests", total);
+        report.summary.put("throughput", total / seconds);
+        report.summary.put("useThroughput", itemThroughputs.get(Operation.USE));
+        report.summary.put("batchUseThroughput", itemThroughputs.get(Operation.USE_BATCH));
+        report.summary.put("lockFailureRate", mutations == 0 ? 0.0 : (double) lockFailures / mutations);
+        report.summary.put("errors", allErrors);
+        return report;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    public void print(PrintStream out) {
+        out.println("=== load test ===");
+        summary.forEach((key, value) -> out.printf("%-16s %s%n", key, value));
+        out.printf("%-10s %10s %10s %10s %8s %8s %8s %8s %8s%n",
+                "op", "count", "req/s", "items/s", "err%", "p50ms", "p95ms", "p99ms", "maxms");
+        operations.forEach((operation, stats) -> out.printf("%-10s %10d %10.1f %10.1f %8.2f %8.2f %8.2f %8.2f %8.2f %s%n",
+                operation,
+                (Integer) stats.get("count"),
+                (Double) stats.get("throughput"),
+                (Double) stats.get("itemThroughput"),
+                (Double) stats.get("errorRate") * 100,
+                (Double) stats.get("p50Millis"),
+                (Double) stats.get("p95Millis"),
+                (Double) stats.get("p99Millis"),
+                (Double) stats.get("maxMillis"),
+                stats.get("errors")));
+    }
+
+    public void write(String path) throws IOException {
+        File file = new File(path);
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        Map<String, Object> json = new LinkedHashMap<>(summary);
+        json.put("operations", operations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, json);
+    }
+
+    /**
+     * 워커 스레드 하나가 단독으로 쓰는 기록기. 잠금 없이 배열에 누적한다.
+     */
+    public static class Recorder {
+        private final long[][] latencies = new long[Operation.values().length][1024];
+        private final int[] sizes = new int[Operation.values().length];
+        private final long[] items = new long[Operation.values().length];
+        private final Map<Operation, Map<String, Long>> errors = new EnumMap<>(Operation.class);
+
+        public Recorder() {
+            for (Operation operation : Operation.values()) {
+                errors.put(operation, new TreeMap<>());
+            }
+        }
+
+        public void record(Operation operation, long nanos, String errorCode) {
+            recordBatch(operation, nanos, Collections.singletonList(errorCode));
+        }
+
+        /**
+         * 요청 하나의 지연과 그 안의 건별 결과(성공은 null)를 기록한다.
+         */
+        public void recordBatch(Operation operation, long nanos, List<String> errorCodes) {
+            int i = operation.ordinal();
+            if (sizes[i] == latencies[i].length) {
+                latencies[i] = Arrays.copyOf(latencies[i], sizes[i] * 2);
+            }
+            latencies[i][sizes[i]++] = nanos;
+            items[i] += errorCodes.size();
+            for (String errorCode : errorCodes) {
+                if (errorCode != null) {
+                    errors.get(operation).merge(errorCode, 1L, Long::sum);
+                }
+            }
+        }
+
+        long items(Operation operation) {
+            return items[operation.ordinal()];
+        }
+
+        long[] latencies(Operation operation) {
+            return Arrays.copyOf(latencies[operation.ordinal()], sizes[operation.ordinal()]);
+        }
+    }
+}
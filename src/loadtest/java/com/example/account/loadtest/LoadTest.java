@@ -0,0 +1,327 @@
+package com.example.account.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 사용자/계좌를 적재한 뒤 설정된 비율로 사용/취소/조회/생성/해지/묶음 사용 요청을 보낸다.
+ * 사용과 취소 대상 계좌는 Zipf 분포로 골라 일부 계좌에 요청이 몰리게 한다.
+ */
+public class LoadTest {
+    private static final long USER_ID_OFFSET = 1_000_000L;
+    private static final int RECENT_SIZE = 4096;
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final LoadTestConfig config;
+    private final URI baseUri;
+    private final JdbcTemplate jdbcTemplate;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<AccountRef> accounts = Collections.synchronizedList(new ArrayList<>());
+    private ZipfianGenerator zipfian;
+    private final BlockingQueue<UsedTransaction> cancellable = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<AccountRef> emptyAccounts = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicReferenceArray<String> recentTransactionIds = new AtomicReferenceArray<>(RECENT_SIZE);
+    private final AtomicLong recentCursor = new AtomicLong();
+    private final Operation[] operations = Operation.values();
+    private final int[] cumulativeWeights;
+
+    public LoadTest(LoadTestConfig config, URI baseUri, JdbcTemplate jdbcTemplate) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.jdbcTemplate = jdbcTemplate;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += config.getMix().get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    public void seed() throws Exception {
+        List<Object[]> users = new ArrayList<>(config.getUsers());
+        for (int i = 0; i < config.getUsers(); i++) {
+            users.add(new Object[]{USER_ID_OFFSET + i, "load" + i});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into account_user (id, name, created_at, updated_at) values (?, ?, now(), now())", users);
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.getConcurrency());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < config.getUsers(); i++) {
+                long userId = USER_ID_OFFSET + i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < config.getAccountsPerUser(); j++) {
+                        JsonNode created = createAccount(userId, config.getInitialBalance());
+                        if (errorCode(created) == null) {
+                            accounts.add(new AccountRef(userId, created.get("accountNumber").asText()));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Collections.shuffle(accounts);
+        zipfian = new ZipfianGenerator(accounts.size(), config.getZipfExponent());
+    }
+
+    public List<LoadReport.Recorder> run(Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(config.getConcurrency());
+        try {
+            List<Future<LoadReport.Recorder>> futures = new ArrayList<>();
+            for (int i = 0; i < config.getConcurrency(); i++) {
+                futures.add(executor.submit(() -> {
+                    LoadReport.Recorder recorder = new LoadReport.Recorder();
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        execute(pick(), recorder);
+                    }
+                    return recorder;
+                }));
+            }
+            List<LoadReport.Recorder> recorders = new ArrayList<>();
+            for (Future<LoadReport.Recorder> future : futures) {
+                recorders.add(future.get());
+            }
+            return recorders;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Operation pick() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return Operation.USE;
+    }
+
+    private void execute(Operation operation, LoadReport.Recorder recorder) {
+        switch (operation) {
+            case CANCEL: {
+                UsedTransaction used = cancellable.poll();
+                if (used == null) {
+                    execute(Operation.USE, recorder);
+                    return;
+                }
+                timed(Operation.CANCEL, recorder, () -> errorCode(post("/transaction/cancel", Map.of(
+                        "transactionId", used.transactionId,
+                        "accountNumber", used.accountNumber,
+                        "amount", used.amount))));
+                return;
+            }
+            case QUERY: {
+                String transactionId = recentTransactionIds.get(
+                        ThreadLocalRandom.current().nextInt(RECENT_SIZE));
+                if (transactionId == null) {
+                    execute(Operation.USE, recorder);
+                    return;
+                }
+                timed(Operation.QUERY, recorder, () -> errorCode(send(HttpRequest.newBuilder(
+                        baseUri.resolve("/transaction/" + transactionId)).GET().build())));
+                return;
+            }
+            case CREATE: {
+                long userId = USER_ID_OFFSET + ThreadLocalRandom.current().nextInt(config.getUsers());
+                timed(Operation.CREATE, recorder, () -> {
+                    JsonNode created = createAccount(userId, 0L);
+                    String errorCode = errorCode(created);
+                    if (errorCode == null) {
+                        emptyAccounts.offer(new AccountRef(userId, created.get("accountNumber").asText()));
+                    }
+                    return errorCode;
+                });
+                return;
+            }
+            case DELETE: {
+                AccountRef account = emptyAccounts.poll();
+                if (account == null) {
+                    execute(Operation.CREATE, recorder);
+                    return;
+                }
+                timed(Operation.DELETE, recorder, () -> errorCode(send(HttpRequest.newBuilder(baseUri.resolve("/account"))
+                        .header("Content-Type", "application/json")
+                        .method("DELETE", HttpRequest.BodyPublishers.ofString(json(Map.of(
+                                "userId", account.userId,
+                                "accountNumber", account.accountNumber))))
+                        .build())));
+                return;
+            }
+            case USE_BATCH: {
+                useBatch(recorder);
+                return;
+            }
+            default: {
+                AccountRef account = accounts.get(zipfian.next());
+                long amount = 10L + ThreadLocalRandom.current().nextInt(1000);
+                timed(Operation.USE, recorder, () -> {
+                    JsonNode used = post("/transaction/use", Map.of(
+                            "userId", account.userId,
+                            "accountNumber", account.accountNumber,
+                            "amount", amount));
+                    String errorCode = errorCode(used);
+                    if (errorCode == null) {
+                        String transactionId = used.get("transactionId").asText();
+                        recentTransactionIds.set(
+                                (int) (recentCursor.getAndIncrement() % RECENT_SIZE), transactionId);
+                        cancellable.offer(new UsedTransaction(transactionId, account.accountNumber, amount));
+                    }
+                    return errorCode;
+                });
+            }
+        }
+    }
+
+    /**
+     * 건별 사용과 같은 분포로 고른 batchSize 건을 한 요청으로 보낸다. 결과는 건마다 기록한다.
+     */
+    private void useBatch(LoadReport.Recorder recorder) {
+        List<Map<String, Object>> requests = new ArrayList<>(config.getBatchSize());
+        for (int i = 0; i < config.getBatchSize(); i++) {
+            AccountRef account = accounts.get(zipfian.next());
+            requests.add(Map.of(
+                    "userId", account.userId,
+                    "accountNumber", account.accountNumber,
+                    "amount", 10L + ThreadLocalRandom.current().nextInt(1000)));
+        }
+        long startedAt = System.nanoTime();
+        List<String> errorCodes = new ArrayList<>(requests.size());
+        try {
+            JsonNode results = post("/transaction/use/batch", Map.of("requests", requests)).get("results");
+            for (JsonNode result : results) {
+                String errorCode = errorCode(result);
+                errorCodes.add(errorCode);
+                if (errorCode == null) {
+                    String transactionId = result.get("transactionId").asText();
+                    recentTransactionIds.set(
+                            (int) (recentCursor.getAndIncrement() % RECENT_SIZE), transactionId);
+                    cancellable.offer(new UsedTransaction(
+                            transactionId, result.get("accountNumber").asText(), result.get("amount").asLong()));
+                }
+            }
+        } catch (HttpStatusException e) {
+            errorCodes = Collections.nCopies(requests.size(), "HTTP_" + e.status);
+        } catch (IOException e) {
+            errorCodes = Collections.nCopies(requests.size(), e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.recordBatch(Operation.USE_BATCH, System.nanoTime() - startedAt, errorCodes);
+    }
+
+    private void timed(Operation operation, LoadReport.Recorder recorder, Call call) {
+        long startedAt = System.nanoTime();
+        String errorCode;
+        try {
+            errorCode = call.call();
+        } catch (HttpStatusException e) {
+            errorCode = "HTTP_" + e.status;
+        } catch (IOException e) {
+            errorCode = e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.record(operation, System.nanoTime() - startedAt, errorCode);
+    }
+
+    private JsonNode createAccount(long userId, long initialBalance) throws IOException, InterruptedException {
+        return post("/account", Map.of("userId", userId, "initialBalance", initialBalance));
+    }
+
+    private JsonNode post(String path, Map<String, ?> body) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build());
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new HttpStatusException(response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private String json(Map<String, ?> body) throws IOException {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    /**
+     * 실패 응답도 200 으로 내려오므로 본문의 errorCode 로 구분한다.
+     */
+    private static String errorCode(JsonNode response) {
+        JsonNode errorCode = response.get("errorCode");
+        return errorCode == null || errorCode.isNull() ? null : errorCode.asText();
+    }
+
+    private interface Call {
+        String call() throws IOException, InterruptedException;
+    }
+
+    private static class HttpStatusException extends IOException {
+        private final int status;
+
+        HttpStatusException(int status) {
+            super("HTTP " + status);
+            this.status = status;
+        }
+    }
+
+    private static class AccountRef {
+        private final long userId;
+        private final String accountNumber;
+
+        AccountRef(long userId, String accountNumber) {
+            this.userId = userId;
+            this.accountNumber = accountNumber;
+        }
+    }
+
+    private static class UsedTransaction {
+        private final String transactionId;
+        private final String accountNumber;
+        private final long amount;
+
+        UsedTransaction(String transactionId, String accountNumber, long amount) {
+            this.transactionId = transactionId;
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+        }
+    }
+}
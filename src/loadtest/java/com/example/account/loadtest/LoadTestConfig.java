@@ -0,0 +1,93 @@
+package com.example.account.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 시스템 프로퍼티(loadtest.*)로 받는 부하 테스트 설정.
+ */
+public class LoadTestConfig {
+    private final int users;
+    private final int accountsPerUser;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final double zipfExponent;
+    private final int batchSize;
+    private final long initialBalance;
+    private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    private final String reportPath;
+
+    private LoadTestConfig() {
+        users = Integer.getInteger("loadtest.users", 1_000);
+        accountsPerUser = Integer.getInteger("loadtest.accounts-per-user", 2);
+        concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10L));
+        duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60L));
+        zipfExponent = Double.parseDouble(System.getProperty("loadtest.zipf-exponent", "1.0"));
+        batchSize = Integer.getInteger("loadtest.batch-size", 20);
+        initialBalance = Long.getLong("loadtest.initial-balance", 1_000_000_000L);
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, Integer.getInteger(
+                    "loadtest.mix." + operation.name().toLowerCase(), operation.getDefaultWeight()));
+        }
+        reportPath = System.getProperty("loadtest.report", "build/reports/loadtest/report.json");
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getAccountsPerUser() {
+        return accountsPerUser;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public double getZipfExponent() {
+        return zipfExponent;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getInitialBalance() {
+        return initialBalance;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    public String getReportPath() {
+        return reportPath;
+    }
+
+    @Override
+    public String toString() {
+        return "users=" + users +
+                ", accountsPerUser=" + accountsPerUser +
+                ", concurrency=" + concurrency +
+                ", warmup=" + warmup +
+                ", duration=" + duration +
+                ", zipfExponent=" + zipfExponent +
+                ", batchSize=" + batchSize +
+                ", mix=" + mix;
+    }
+}
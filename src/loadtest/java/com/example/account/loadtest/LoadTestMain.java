@@ -0,0 +1,49 @@
+package com.example.account.loadtest;
+
+import com.example.account.AccountApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 애플리케이션(H2 + embedded Redis)을 임의 포트로 띄우고 HTTP 부하를 건다.
+ * ./gradlew loadTest -Dloadtest.duration-seconds=120 -Dloadtest.zipf-exponent=1.2
+ */
+public class LoadTestMain {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + Math.max(200, config.getConcurrency() * 2),
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN"
+                )
+                .run(args);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTest loadTest = new LoadTest(
+                    config, URI.create("http://localhost:" + port), context.getBean(JdbcTemplate.class));
+            System.out.println("seeding: " + config);
+            loadTest.seed();
+            if (!config.getWarmup().isZero()) {
+                System.out.println("warming up for " + config.getWarmup());
+                loadTest.run(config.getWarmup());
+            }
+            System.out.println("running for " + config.getDuration());
+            long startedAt = System.nanoTime();
+            List<LoadReport.Recorder> recorders = loadTest.run(config.getDuration());
+            LoadReport report = LoadReport.of(config, recorders, Duration.ofNanos(System.nanoTime() - startedAt));
+            report.print(System.out);
+            report.write(config.getReportPath());
+        } finally {
+            context.close();
+        }
+    }
+}
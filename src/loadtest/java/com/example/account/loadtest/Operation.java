@@ -0,0 +1,21 @@
+package com.example.account.loadtest;
+
+public enum Operation {
+    USE(60),
+    CANCEL(10),
+    QUERY(25),
+    CREATE(3),
+    DELETE(2),
+    /** /transaction/use/batch 로 loadtest.batch-size 건씩 사용. 기본 비율 0 이라 켤 때만 섞인다. */
+    USE_BATCH(0);
+
+    private final int defaultWeight;
+
+    Operation(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.account.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 0..n-1 중 하나를 Zipf 분포로 뽑는다. 0 번이 가장 자주 뽑히는 hot 계좌다.
+ * 누적 분포를 미리 계산해 두고 이진 탐색으로 고른다.
+ */
+public class ZipfianGenerator {
+    private final double[] cdf;
+
+    public ZipfianGenerator(int n, double exponent) {
+        cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    public int next() {
+        int index = Arrays.binarySearch(cdf, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cdf.length - 1);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.account.aop;
 
+import com.example.account.type.LockFailMode;
+
 import java.lang.annotation.*;
 
 @Target(ElementType.METHOD)
@@ -7,5 +9,11 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
-    long tryLockTime() default 5000L;
+    /** 락 획득 대기 시간(ms) */
+    long tryLockTime() default 1000L;
+
+    /** 락 자동 해제 시간(ms) */
+    long leaseTime() default 15000L;
+
+    LockFailMode failMode() default LockFailMode.REJECT;
 }
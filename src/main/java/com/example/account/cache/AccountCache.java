@@ -0,0 +1,28 @@
+package com.example.account.cache;
+
+import com.example.account.domain.Account;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class AccountCache {
+    private final CacheManager cacheManager;
+    private final SecondLevelCacheRelay secondLevelCacheRelay;
+
+    public void evictUserAccounts(Long userId) {
+        Cache cache = cacheManager.getCache(CacheNames.USER_ACCOUNTS);
+        if (cache != null) {
+            cache.evict(userId);
+        }
+    }
+
+    /**
+     * 조건부 UPDATE 로 바꾼 계좌를 커밋 뒤 다른 노드의 2차 캐시에서도 지운다.
+     */
+    public void evictAccount(Long accountId) {
+        secondLevelCacheRelay.evictAfterCommit(Account.class, accountId);
+    }
+}
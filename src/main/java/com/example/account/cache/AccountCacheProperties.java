@@ -0,0 +1,40 @@
+package com.example.account.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.cache")
+public class AccountCacheProperties {
+    private boolean remoteEnabled = false;
+    /**
+     * hibernate 통계(region 별 hit/miss 지표). 세션마다 집계 비용이 들어 기본은 끈다.
+     */
+    private boolean statistics = false;
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Spec {
+        private long maximumSize = 10_000;
+        private Duration localTtl = Duration.ofMinutes(1);
+        private Duration remoteTtl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Region {
+        private long maximumSize = 10_000;
+        /**
+         * null 이면 만료되지 않는다.
+         */
+        private Duration ttl;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.account.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEviction implements Serializable {
+    private String cacheName;
+    private Object key;
+}
@@ -0,0 +1,13 @@
+package com.example.account.cache;
+
+public final class CacheNames {
+    public static final String ACCOUNT_ID = "account-id";
+    public static final String USER_ACCOUNTS = "user-accounts";
+
+    // hibernate second-level cache regions
+    public static final String ACCOUNT_USER_ENTITY = "account-user-entity";
+    public static final String ACCOUNT_ENTITY = "account-entity";
+
+    private CacheNames() {
+    }
+}
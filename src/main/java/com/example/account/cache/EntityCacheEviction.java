@@ -0,0 +1,21 @@
+package com.example.account.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityCacheEviction implements Serializable {
+    /**
+     * 보낸 노드. 자기가 보낸 것은 무시한다.
+     */
+    private String source;
+    private String entityName;
+    private Serializable id;
+}
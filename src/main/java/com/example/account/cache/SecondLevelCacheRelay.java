@@ -0,0 +1,101 @@
+package com.example.account.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.redisson.api.RTopic;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * hibernate 2차 캐시는 노드마다 따로 있으므로, 커밋된 엔티티 변경을 redis topic 으로 알려 다른 노드의 2차 캐시에서도 지운다.
+ * 엔티티 수정/삭제는 hibernate 의 커밋 후 이벤트로 잡고, 이벤트가 없는 벌크 UPDATE 는 {@link #evictAfterCommit} 로 알린다.
+ * 이 노드의 2차 캐시는 hibernate 가 직접 갱신한다. topic 이 없으면(단일 노드) 아무것도 하지 않는다.
+ */
+@Slf4j
+public class SecondLevelCacheRelay implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private final String source = UUID.randomUUID().toString();
+    private final CacheImplementor cache;
+    private final RTopic evictionTopic;
+
+    public SecondLevelCacheRelay(SessionFactoryImplementor sessionFactory, RTopic evictionTopic) {
+        this.cache = sessionFactory.getCache();
+        this.evictionTopic = evictionTopic;
+        if (evictionTopic != null) {
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+                    .getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+            registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+            evictionTopic.addListener(EntityCacheEviction.class, (channel, eviction) -> onEviction(eviction));
+        }
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 다른 노드에 알린다. 트랜잭션 밖이면 바로 알린다.
+     */
+    public void evictAfterCommit(Class<?> entityClass, Serializable id) {
+        if (evictionTopic == null) {
+            return;
+        }
+        EntityCacheEviction eviction = new EntityCacheEviction(source, entityClass.getName(), id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(eviction);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(eviction);
+            }
+        });
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(new EntityCacheEviction(source, event.getPersister().getEntityName(), event.getId()));
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(new EntityCacheEviction(source, event.getPersister().getEntityName(), event.getId()));
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        // 2차 캐시에 두는 엔티티만 알린다.
+        return persister.canWriteToCache();
+    }
+
+    void onEviction(EntityCacheEviction eviction) {
+        if (!source.equals(eviction.getSource())) {
+            cache.evictEntityData(eviction.getEntityName(), eviction.getId());
+        }
+    }
+
+    private void publish(EntityCacheEviction eviction) {
+        // 커밋은 이미 끝났으므로 기다리지 않는다. 놓친 알림은 region ttl 이 지나면 사라진다.
+        evictionTopic.publishAsync(eviction).whenComplete((receivers, e) -> {
+            if (e != null) {
+                log.warn("Second-level cache eviction was not published. {}", eviction, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.account.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RTopic;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 로컬(Caffeine) 캐시를 우선 조회하고, 없으면 Redis 캐시를 조회하는 2단계 캐시.
+ * 삭제는 토픽으로 전파되어 다른 노드의 로컬 캐시도 함께 비운다.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final Cache<Object, Object> localCache;
+    private final RMapCache<Object, Object> remoteCache;
+    private final Duration remoteTtl;
+    private final RTopic evictionTopic;
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TwoLevelCache(String name, Cache<Object, Object> localCache) {
+        this(name, localCache, null, null, null);
+    }
+
+    public TwoLevelCache(
+            String name,
+            Cache<Object, Object> localCache,
+            RMapCache<Object, Object> remoteCache,
+            Duration remoteTtl,
+            RTopic evictionTopic
+    ) {
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.remoteTtl = remoteTtl;
+        this.evictionTopic = evictionTopic;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null || remoteCache == null) {
+            return value;
+        }
+        value = remoteCache.get(key);
+        if (value == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        localCache.put(key, value);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        puts.increment();
+        localCache.put(key, value);
+        if (remoteCache != null) {
+            remoteCache.fastPut(key, value, remoteTtl.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.increment();
+        localCache.invalidate(key);
+        if (remoteCache != null) {
+            remoteCache.fastRemove(key);
+            evictionTopic.publish(new CacheEviction(name, key));
+        }
+    }
+
+    @Override
+    public void clear() {
+        localCache.invalidateAll();
+        if (remoteCache != null) {
+            remoteCache.delete();
+            evictionTopic.publish(new CacheEviction(name, null));
+        }
+    }
+
+    void evictLocal(Object key) {
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+
+    public Cache<Object, Object> getLocalCache() {
+        return localCache;
+    }
+
+    public long getRemoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMissCount() {
+        return remoteMisses.sum();
+    }
+
+    public long getPutCount() {
+        return puts.sum();
+    }
+
+    public long getEvictCount() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.account.cache;
+
+import org.redisson.api.RTopic;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+    private final Map<String, TwoLevelCache> caches;
+
+    public TwoLevelCacheManager(Map<String, TwoLevelCache> caches, RTopic evictionTopic) {
+        this.caches = caches;
+        setTransactionAware(true);
+        if (evictionTopic != null) {
+            evictionTopic.addListener(CacheEviction.class, (channel, eviction) -> {
+                TwoLevelCache cache = caches.get(eviction.getCacheName());
+                if (cache != null) {
+                    cache.evictLocal(eviction.getKey());
+                }
+            });
+        }
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return caches.values();
+    }
+}
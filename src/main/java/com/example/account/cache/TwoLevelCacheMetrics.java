@@ -0,0 +1,50 @@
+package com.example.account.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+public class TwoLevelCacheMetrics implements MeterBinder {
+    private final TwoLevelCache cache;
+    private final Iterable<Tag> tags;
+
+    public TwoLevelCacheMetrics(TwoLevelCache cache, Iterable<Tag> tags) {
+        this.cache = cache;
+        this.tags = Tags.concat(tags, "cache", cache.getName());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cache.size", cache, c -> c.getLocalCache().estimatedSize())
+                .tags(tags)
+                .description("The number of entries in the local cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> stats(c).hitCount())
+                .tags(tags).tags("result", "hit", "tier", "local")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> stats(c).missCount())
+                .tags(tags).tags("result", "miss", "tier", "local")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, TwoLevelCache::getRemoteHitCount)
+                .tags(tags).tags("result", "hit", "tier", "remote")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, TwoLevelCache::getRemoteMissCount)
+                .tags(tags).tags("result", "miss", "tier", "remote")
+                .register(registry);
+        FunctionCounter.builder("cache.puts", cache, TwoLevelCache::getPutCount)
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> stats(c).evictionCount() + c.getEvictCount())
+                .tags(tags)
+                .description("Entries removed by size/TTL policy or explicit eviction")
+                .register(registry);
+    }
+
+    private static CacheStats stats(TwoLevelCache cache) {
+        return cache.getLocalCache().stats();
+    }
+}
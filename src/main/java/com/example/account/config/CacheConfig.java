@@ -0,0 +1,66 @@
+package com.example.account.config;
+
+import com.example.account.cache.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.JsonJacksonCodec;
+import org.redisson.codec.SerializationCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.account.cache.CacheNames.*;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(AccountCacheProperties.class)
+public class CacheConfig {
+    private static final String REMOTE_CACHE_PREFIX = "CACHE:";
+    private static final String EVICTION_TOPIC = "CACHE:EVICT";
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(
+            AccountCacheProperties properties,
+            ObjectProvider<RedissonClient> redissonClient,
+            ObjectMapper objectMapper
+    ) {
+        RedissonClient redisson = properties.isRemoteEnabled() ? redissonClient.getIfAvailable() : null;
+        RTopic evictionTopic = redisson == null
+                ? null : redisson.getTopic(EVICTION_TOPIC, new SerializationCodec());
+        JsonJacksonCodec codec = new JsonJacksonCodec(objectMapper.copy());
+
+        Map<String, TwoLevelCache> caches = new LinkedHashMap<>();
+        for (String name : List.of(ACCOUNT_ID, USER_ACCOUNTS)) {
+            AccountCacheProperties.Spec spec = properties.getSpecs()
+                    .getOrDefault(name, new AccountCacheProperties.Spec());
+            Caffeine<Object, Object> local = Caffeine.newBuilder()
+                    .maximumSize(spec.getMaximumSize())
+                    .expireAfterWrite(spec.getLocalTtl())
+                    .recordStats();
+            caches.put(name, redisson == null
+                    ? new TwoLevelCache(name, local.build())
+                    : new TwoLevelCache(
+                            name,
+                            local.build(),
+                            redisson.getMapCache(REMOTE_CACHE_PREFIX + name, codec),
+                            spec.getRemoteTtl(),
+                            evictionTopic
+                    ));
+        }
+        return new TwoLevelCacheManager(caches, evictionTopic);
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return TwoLevelCacheMetrics::new;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.account.config;
+
+import com.example.account.service.AccountTaskExecutor;
+import com.example.account.service.LockingTransactionDispatcher;
+import com.example.account.service.SingleWriterTransactionDispatcher;
+import com.example.account.service.TransactionDispatcher;
+import com.example.account.service.TransactionRequestService;
+import com.example.account.service.TransactionService;
+import com.example.account.type.ExecutionMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Configuration
+public class ExecutionConfig {
+    @Value("${account.execution.mode:sync}")
+    private ExecutionMode mode;
+
+    @Value("${account.execution.workers:32}")
+    private int workers;
+
+    @Value("${account.execution.max-pending-per-account:64}")
+    private int maxPendingPerAccount;
+
+    @Value("${account.execution.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    @Value("${account.execution.shards:8}")
+    private int shards;
+
+    @Value("${account.execution.shard-capacity:10000}")
+    private int shardCapacity;
+
+    @Value("${account.execution.commit-interval-millis:2}")
+    private long commitIntervalMillis;
+
+    @Value("${account.execution.max-batch:256}")
+    private int maxBatch;
+
+    @Bean
+    public TransactionDispatcher transactionDispatcher(
+            TransactionService transactionService,
+            TransactionRequestService transactionRequestService
+    ) {
+        if (mode == ExecutionMode.SINGLE_WRITER) {
+            // shutdown() 은 destroy 메서드로 추론된다.
+            return new SingleWriterTransactionDispatcher(
+                    transactionService, shards, shardCapacity, commitIntervalMillis, maxBatch);
+        }
+        return new LockingTransactionDispatcher(accountTaskExecutor(), transactionRequestService);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public AccountTaskExecutor accountTaskExecutor() {
+        if (mode != ExecutionMode.ASYNC) {
+            return AccountTaskExecutor.inline();
+        }
+        return new AccountTaskExecutor(accountWorkers(), maxPendingPerAccount);
+    }
+
+    // Executor 빈으로 등록하면 Boot 의 applicationTaskExecutor 가 빠지므로 빈으로 노출하지 않는다.
+    private ExecutorService accountWorkers() {
+        ExecutorService virtual = virtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+        if (virtual != null) {
+            log.info("Account tasks run on virtual threads.");
+            return virtual;
+        }
+        return Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("account-worker-"));
+    }
+
+    /**
+     * Java 21 이상에서 실행될 때만 가상 스레드를 쓴다. (컴파일 대상은 Java 11)
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.account.config;
+
+import com.example.account.service.FailedTransactionRecorder;
+import com.example.account.service.TransactionService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class FailedTransactionConfig {
+    @Value("${account.failed-transaction.capacity:10000}")
+    private int capacity;
+
+    @Value("${account.failed-transaction.batch-size:100}")
+    private int batchSize;
+
+    @Value("${account.failed-transaction.offer-timeout-millis:50}")
+    private long offerTimeoutMillis;
+
+    @Value("${account.failed-transaction.spill-file:}")
+    private String spillFile;
+
+    @Bean(destroyMethod = "shutdown")
+    public FailedTransactionRecorder failedTransactionRecorder(
+            TransactionService transactionService,
+            MeterRegistry meterRegistry
+    ) {
+        FailedTransactionRecorder recorder = new FailedTransactionRecorder(
+                transactionService,
+                capacity,
+                batchSize,
+                offerTimeoutMillis,
+                spillFile.isBlank() ? null : Paths.get(spillFile)
+        );
+        FunctionCounter.builder("account.failed-transaction.dropped", recorder, FailedTransactionRecorder::dropped)
+                .register(meterRegistry);
+        return recorder;
+    }
+}
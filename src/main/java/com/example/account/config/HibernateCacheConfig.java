@@ -0,0 +1,86 @@
+package com.example.account.config;
+
+import com.example.account.cache.AccountCacheProperties;
+import com.example.account.cache.SecondLevelCacheRelay;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.SerializationCodec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static com.example.account.cache.CacheNames.ACCOUNT_ENTITY;
+import static com.example.account.cache.CacheNames.ACCOUNT_USER_ENTITY;
+
+/**
+ * AccountUser, Account 를 hibernate 2차 캐시(노드별 caffeine)에 둔다.
+ * region 은 account.cache.regions 로 미리 만들고, 없는 region 을 쓰는 엔티티가 있으면 기동에 실패한다.
+ */
+@Configuration
+@EnableConfigurationProperties(AccountCacheProperties.class)
+public class HibernateCacheConfig {
+    private static final String EVICTION_TOPIC = "CACHE:EVICT:ENTITY";
+
+    @Bean
+    public CacheManager secondLevelCacheManager(AccountCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // 기본 URI 의 CacheManager 는 JVM 안에서 공유되고 EntityManagerFactory 가 닫을 때 함께 닫히므로 컨텍스트마다 따로 만든다.
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("account:second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String name : List.of(ACCOUNT_USER_ENTITY, ACCOUNT_ENTITY)) {
+            AccountCacheProperties.Region region = properties.getRegions()
+                    .getOrDefault(name, new AccountCacheProperties.Region());
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            // hibernate 는 분해된 불변 상태를 넣으므로 값을 복사해 둘 필요가 없다.
+            configuration.setStoreByValue(false);
+            configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+            if (region.getTtl() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+            }
+            cacheManager.createCache(name, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            CacheManager secondLevelCacheManager,
+            AccountCacheProperties cacheProperties
+    ) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, cacheProperties.isStatistics());
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public SecondLevelCacheRelay secondLevelCacheRelay(
+            EntityManagerFactory entityManagerFactory,
+            AccountCacheProperties properties,
+            ObjectProvider<RedissonClient> redissonClient
+    ) {
+        RedissonClient redisson = properties.isRemoteEnabled() ? redissonClient.getIfAvailable() : null;
+        return new SecondLevelCacheRelay(
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class),
+                redisson == null ? null : redisson.getTopic(EVICTION_TOPIC, new SerializationCodec())
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.account.config;
+
+import com.example.account.service.AccountLockProvider;
+import com.example.account.service.HybridAccountLockProvider;
+import com.example.account.service.LockService;
+import com.example.account.service.StripedAccountLockProvider;
+import com.example.account.type.LockProviderType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class LockConfig {
+    @Value("${account.lock.provider:redis}")
+    private LockProviderType providerType;
+
+    @Value("${account.lock.stripes:1024}")
+    private int stripes;
+
+    @Bean
+    @Primary
+    public AccountLockProvider accountLockProvider(LockService lockService) {
+        switch (providerType) {
+            case LOCAL:
+                return new StripedAccountLockProvider(stripes);
+            case HYBRID:
+                return new HybridAccountLockProvider(new StripedAccountLockProvider(stripes), lockService);
+            default:
+                return lockService;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.account.config;
+
+import com.example.account.service.FileTransactionEventSink;
+import com.example.account.service.RedisStreamTransactionEventSink;
+import com.example.account.service.TransactionEventSink;
+import com.example.account.service.TransactionOutbox;
+import com.example.account.service.TransactionOutboxRelay;
+import com.example.account.type.OutboxSinkType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class OutboxConfig {
+    private static final String RELAY_LOCK_KEY = "OUTBOX:RELAY";
+
+    @Value("${account.outbox.sink:redis}")
+    private OutboxSinkType sinkType;
+
+    @Value("${account.outbox.stream:TRANSACTION:EVENTS}")
+    private String stream;
+
+    @Value("${account.outbox.stream-max-length:1000000}")
+    private int streamMaxLength;
+
+    @Value("${account.outbox.file:build/outbox/transaction-events.ndjson}")
+    private String file;
+
+    @Value("${account.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Bean
+    public TransactionEventSink transactionEventSink(
+            ObjectProvider<RedissonClient> redissonClient,
+            ObjectMapper objectMapper
+    ) {
+        if (sinkType == OutboxSinkType.FILE) {
+            return new FileTransactionEventSink(Paths.get(file), objectMapper);
+        }
+        return new RedisStreamTransactionEventSink(redissonClient.getObject(), stream, streamMaxLength);
+    }
+
+    @Bean
+    public TransactionOutboxRelay transactionOutboxRelay(
+            TransactionOutbox transactionOutbox,
+            TransactionEventSink transactionEventSink,
+            ObjectProvider<RedissonClient> redissonClient,
+            MeterRegistry meterRegistry
+    ) {
+        RedissonClient redisson = redissonClient.getIfAvailable();
+        return new TransactionOutboxRelay(
+                transactionOutbox,
+                transactionEventSink,
+                redisson == null ? null : redisson.getLock(RELAY_LOCK_KEY),
+                batchSize,
+                meterRegistry
+        );
+    }
+}
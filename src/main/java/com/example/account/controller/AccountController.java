@@ -3,7 +3,9 @@ package com.example.account.controller;
 import com.example.account.dto.AccountInfo;
 import com.example.account.dto.CreateAccount;
 import com.example.account.dto.DeleteAccount;
+import com.example.account.dto.LedgerBalance;
 import com.example.account.service.AccountService;
+import com.example.account.service.LedgerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,6 +17,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AccountController {
     private final AccountService accountService;
+    private final LedgerService ledgerService;
 
     @PostMapping("/account")
     public CreateAccount.Response createAccount(@RequestBody @Valid CreateAccount.Request request) {
@@ -43,4 +46,9 @@ public class AccountController {
                 .stream().map(AccountInfo::fromDto)
                 .collect(Collectors.toList());
     }
+
+    @GetMapping("/account/{accountNumber}/ledger")
+    public LedgerBalance recomputeBalance(@PathVariable String accountNumber) {
+        return ledgerService.recomputeBalance(accountNumber);
+    }
 }
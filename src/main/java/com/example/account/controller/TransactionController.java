@@ -1,67 +1,83 @@
 package com.example.account.controller;
 
-import com.example.account.aop.AccountLock;
 import com.example.account.dto.CancelBalance;
 import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionCursor;
+import com.example.account.dto.TransactionHistoryCondition;
+import com.example.account.dto.TransactionHistoryResponse;
 import com.example.account.dto.UseBalance;
-import com.example.account.exception.AccountException;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.service.IdempotencyService;
+import com.example.account.service.TransactionBatchService;
+import com.example.account.service.TransactionDispatcher;
+import com.example.account.service.TransactionExportService;
 import com.example.account.service.TransactionService;
+import com.example.account.type.ExportFormat;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final TransactionService transactionService;
+    private final TransactionBatchService transactionBatchService;
+    private final TransactionDispatcher transactionDispatcher;
+    private final TransactionExportService transactionExportService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/transaction/use")
-    @AccountLock
-    public UseBalance.Response useBalance(
+    public CompletableFuture<UseBalance.Response> useBalance(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Valid @RequestBody UseBalance.Request request
     ) {
-        try {
-            return UseBalance.Response.from(
-                    transactionService.useBalance(
-                            request.getUserId(),
-                            request.getAccountNumber(),
-                            request.getAmount()
-                    )
-            );
-        } catch (AccountException e) {
-            log.error("Failed to use balance.");
-            transactionService.saveFailedUseTransaction(
-                    request.getAccountNumber(),
-                    request.getAmount()
-            );
-            throw e;
-        }
+        return idempotencyService.execute(
+                "use",
+                idempotencyKey,
+                request,
+                UseBalance.Response.class,
+                () -> transactionDispatcher.useBalance(request)
+        );
+    }
+
+    @PostMapping("/transaction/use/batch")
+    public UseBalanceBatch.Response useBalances(
+            @Valid @RequestBody UseBalanceBatch.Request request
+    ) {
+        return new UseBalanceBatch.Response(
+                transactionBatchService.useBalances(request.getRequests())
+        );
     }
 
     @PostMapping("/transaction/cancel")
-    @AccountLock
-    public CancelBalance.Response useBalance(
+    public CompletableFuture<CancelBalance.Response> useBalance(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             @Valid @RequestBody CancelBalance.Request request
     ) {
-        try {
-            return CancelBalance.Response.from(
-                    transactionService.cancelBalance(
-                            request.getTransactionId(),
-                            request.getAccountNumber(),
-                            request.getAmount()
-                    )
-            );
-        } catch (AccountException e) {
-            log.error("Failed to use balance.");
-            transactionService.saveFailedCancelTransaction(
-                    request.getAccountNumber(),
-                    request.getAmount()
-            );
-            throw e;
-        }
+        return idempotencyService.execute(
+                "cancel",
+                idempotencyKey,
+                request,
+                CancelBalance.Response.class,
+                () -> transactionDispatcher.cancelBalance(request)
+        );
     }
 
     @GetMapping("/transaction/{transactionId}")
@@ -72,4 +88,103 @@ public class TransactionController {
                 transactionService.queryTransaction(transactionId)
         );
     }
+
+    @GetMapping("/account/{accountNumber}/transactions")
+    public TransactionHistoryResponse getTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "transaction_type", required = false) TransactionType transactionType,
+            @RequestParam(value = "transaction_result", required = false) TransactionResultType transactionResult,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return transactionService.getTransactionHistory(
+                accountNumber,
+                TransactionHistoryCondition.builder()
+                        .cursor(cursor == null ? null : TransactionCursor.decode(cursor))
+                        .size(size)
+                        .transactionType(transactionType)
+                        .transactionResult(transactionResult)
+                        .from(from)
+                        .to(to)
+                        .build()
+        );
+    }
+
+    /**
+     * 전체 거래 내역을 NDJSON 또는 CSV 로 내려준다. Accept-Encoding 이 gzip 을 받으면(q > 0) 압축한다.
+     * 요청 스레드에서 바로 쓴다. (비동기 응답은 spring.mvc.async.request-timeout 에 걸려 큰 내역이 끊긴다.)
+     * 쓰는 도중 실패하면 gzip 을 끝맺지 않아, 이미 200 이 나간 뒤라도 클라이언트가 잘린 응답을 알아챈다.
+     */
+    @GetMapping("/account/{accountNumber}/transactions/export")
+    public void exportTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        Long accountId = transactionExportService.getAccountId(accountNumber);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(accountNumber + "-transactions." + format.getExtension())
+                .build()
+                .toString());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (!gzip) {
+            transactionExportService.export(accountId, format, response.getOutputStream());
+            return;
+        }
+        ExportGzipOutputStream out = new ExportGzipOutputStream(response.getOutputStream());
+        try {
+            transactionExportService.export(accountId, format, out);
+        } catch (IOException | RuntimeException e) {
+            out.abort();
+            throw e;
+        }
+        out.close();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2).trim()) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static class ExportGzipOutputStream extends GZIPOutputStream {
+        ExportGzipOutputStream(OutputStream out) throws IOException {
+            super(out, EXPORT_BUFFER_SIZE);
+        }
+
+        /**
+         * trailer 를 쓰지 않고 Deflater 의 네이티브 메모리만 놓는다.
+         */
+        void abort() {
+            def.end();
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.account.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.datasource")
+public class ReplicaDataSourceProperties {
+    private List<Replica> replicas = new ArrayList<>();
+    /**
+     * 이보다 뒤처진 replica 로는 읽지 않는다.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+    /**
+     * replica 에서 실행해 지연(초)을 한 값으로 돌려주는 쿼리. 비어 있으면 연결 가능 여부만 본다.
+     */
+    private String lagQuery = "";
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
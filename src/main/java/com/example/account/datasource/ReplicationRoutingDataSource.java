@@ -0,0 +1,173 @@
+package com.example.account.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션은 replica 들에 돌아가며 보내고 나머지는 primary 로 보낸다.
+ * 지연이 maxLag 를 넘거나 연결되지 않는 replica 는 다음 점검 때까지 빼고, 남은 replica 가 없으면 primary 에서 읽는다.
+ * 트랜잭션 속성이 정해진 뒤 연결을 고르도록 LazyConnectionDataSourceProxy 로 감싸서 쓴다.
+ */
+@Slf4j
+public class ReplicationRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReplicationRoutingDataSource(
+            DataSource primary,
+            List<DataSource> replicas,
+            Duration maxLag,
+            String lagQuery,
+            MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicas.get(i));
+            this.replicas.add(replica);
+            Gauge.builder("account.datasource.replica.lag", replica, r -> r.lagMillis)
+                    .tag("replica", replica.name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("account.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+        this.primaryRoutes = routes(meterRegistry, "primary");
+        this.replicaRoutes = routes(meterRegistry, "replica");
+        this.fallbackRoutes = routes(meterRegistry, "fallback");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * AbstractRoutingDataSource 처럼 같은 기준으로 고른 풀에 자격 증명을 그대로 넘긴다.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionOpener opener) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoutes.increment();
+            return opener.open(primary);
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection connection = opener.open(replica.dataSource);
+                replicaRoutes.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.available = false;
+                log.warn("Replica {} is unreachable. Routing reads elsewhere until the next check.", replica.name, e);
+            }
+        }
+        fallbackRoutes.increment();
+        return opener.open(primary);
+    }
+
+    /**
+     * 각 replica 의 지연을 재고 읽기 대상에 넣거나 뺀다.
+     */
+    @Scheduled(fixedDelayString = "${account.datasource.check-interval-millis:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean available;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (lagQuery == null) {
+                    available = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+                } else {
+                    replica.lagMillis = measureLagMillis(connection);
+                    available = replica.lagMillis <= maxLagMillis;
+                }
+            } catch (SQLException e) {
+                available = false;
+            }
+            if (available != replica.available) {
+                log.warn("Replica {} is {}. lag: {} ms",
+                        replica.name, available ? "back in rotation" : "out of rotation", replica.lagMillis);
+            }
+            replica.available = available;
+        }
+    }
+
+    private long measureLagMillis(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                throw new SQLException("Lag query returned no row.");
+            }
+            double seconds = resultSet.getDouble(1);
+            // 복제가 멈춘 경우 null 을 돌려주는 DB 가 있다.
+            return resultSet.wasNull() ? Long.MAX_VALUE : (long) (seconds * 1000);
+        }
+    }
+
+    /**
+     * replica 풀을 닫는다. primary 는 따로 등록된 빈이라 닫지 않는다.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+    }
+
+    private static Counter routes(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("account.datasource.routes")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available = true;
+        private volatile long lagMillis;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.account.domain;
 
+import com.example.account.cache.CacheNames;
 import com.example.account.exception.AccountException;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -14,11 +20,22 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheNames.ACCOUNT_ENTITY)
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_account_number", columnNames = "account_number"),
+        indexes = @Index(name = "idx_account_account_user_id", columnList = "account_user_id")
+)
 public class Account extends BaseEntity {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @GenericGenerator(
+            name = "account_seq",
+            strategy = "com.example.account.domain.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "account_seq")
+    )
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;
 
     private String accountNumber;
@@ -30,11 +47,21 @@ public class Account extends BaseEntity {
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
+    @Version
+    private Long version;
+
+    /**
+     * 잔액을 바꾼 성공 거래의 수. 거래의 sequenceNo 로 쓰인다.
+     */
+    @Builder.Default
+    private Long ledgerSequence = 0L;
+
     public void useBalance(Long amount) {
         if (amount > balance) {
             throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
         balance -= amount;
+        ledgerSequence++;
     }
 
     public void cancelBalance(Long amount) {
@@ -42,5 +69,6 @@ public class Account extends BaseEntity {
             throw new AccountException(ErrorCode.INVALID_REQUEST);
         }
         balance += amount;
+        ledgerSequence++;
     }
 }
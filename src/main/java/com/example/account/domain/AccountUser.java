@@ -1,17 +1,26 @@
 package com.example.account.domain;
 
+import com.example.account.cache.CacheNames;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 
+/**
+ * 사용자는 만들어진 뒤 바뀌지 않으므로 2차 캐시에 읽기 전용으로 둔다.
+ */
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheNames.ACCOUNT_USER_ENTITY)
 public class AccountUser extends BaseEntity {
     @Id
     @GeneratedValue
@@ -0,0 +1,35 @@
+package com.example.account.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * 계좌의 sequenceNo 번째 거래까지 반영한 잔액. 잔액 재계산은 가장 가까운 checkpoint 부터 시작한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_balance_checkpoint_account_id_sequence_no",
+        columnNames = {"account_id", "sequence_no"}
+))
+public class BalanceCheckpoint extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long accountId;
+    private Long sequenceNo;
+    private Long balance;
+
+    public static BalanceCheckpoint of(Account account) {
+        return BalanceCheckpoint.builder()
+                .accountId(account.getId())
+                .sequenceNo(account.getLedgerSequence())
+                .balance(account.getBalance())
+                .build();
+    }
+}
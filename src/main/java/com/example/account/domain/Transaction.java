@@ -3,6 +3,9 @@ package com.example.account.domain;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -13,18 +16,37 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_transaction_transaction_id", columnNames = "transaction_id"),
+                @UniqueConstraint(name = "uk_transaction_account_id_sequence_no", columnNames = {"account_id", "sequence_no"})
+        },
+        indexes = {
+                @Index(name = "idx_transaction_account_id_transacted_at", columnList = "account_id, transacted_at"),
+                @Index(name = "idx_transaction_transacted_at", columnList = "transacted_at")
+        }
+)
 public class Transaction extends BaseEntity{
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @GenericGenerator(
+            name = "transaction_seq",
+            strategy = "com.example.account.domain.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "transaction_seq")
+    )
     private Long id;
     @Enumerated(EnumType.STRING)
     private TransactionType transactionType;
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
     private Long amount;
     private Long balanceSnapshot;
     private String transactionId;
     private LocalDateTime transactedAt;
+    /**
+     * 계좌 원장에서의 순번. 실패 거래는 잔액을 바꾸지 않으므로 null 이다.
+     */
+    private Long sequenceNo;
 }
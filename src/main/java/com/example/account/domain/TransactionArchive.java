@@ -0,0 +1,40 @@
+package com.example.account.domain;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * TransactionArchiver 가 옮긴 지난 거래. 조회 전용이며 행은 SQL 로만 들어온다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Immutable
+@Table(
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_transaction_archive_transaction_id", columnNames = "transaction_id"),
+        indexes = @Index(
+                name = "idx_transaction_archive_account_id_transacted_at", columnList = "account_id, transacted_at")
+)
+public class TransactionArchive extends BaseEntity {
+    @Id
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+    @Enumerated(EnumType.STRING)
+    private TransactionResultType transactionResultType;
+    private Long accountId;
+    private Long amount;
+    private Long balanceSnapshot;
+    private String transactionId;
+    private LocalDateTime transactedAt;
+    private Long sequenceNo;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,36 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+/**
+ * 한 계좌에 순서대로 적용할 잔액 변경(사용/취소) 명령.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class BalanceCommand {
+    private TransactionType transactionType;
+    private String accountNumber;
+    private Long userId;
+    private String transactionId;
+    private Long amount;
+
+    public static BalanceCommand use(UseBalance.Request request) {
+        return BalanceCommand.builder()
+                .transactionType(TransactionType.USE)
+                .accountNumber(request.getAccountNumber())
+                .userId(request.getUserId())
+                .amount(request.getAmount())
+                .build();
+    }
+
+    public static BalanceCommand cancel(CancelBalance.Request request) {
+        return BalanceCommand.builder()
+                .transactionType(TransactionType.CANCEL)
+                .accountNumber(request.getAccountNumber())
+                .transactionId(request.getTransactionId())
+                .amount(request.getAmount())
+                .build();
+    }
+}
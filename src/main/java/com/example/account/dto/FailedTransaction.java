@@ -0,0 +1,55 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * 나중에 실패 거래로 저장할 요청 정보.
+ * 잔액은 담지 않으므로 저장된 실패 거래의 balanceSnapshot 은 저장 시점의 잔액이다.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class FailedTransaction {
+    private TransactionType transactionType;
+    private String accountNumber;
+    private Long amount;
+    private LocalDateTime failedAt;
+
+    public static FailedTransaction of(TransactionType transactionType, String accountNumber, Long amount) {
+        return new FailedTransaction(transactionType, accountNumber, amount, LocalDateTime.now());
+    }
+
+    /**
+     * 요청에서 온 계좌번호에는 구분자가 들어 있을 수 있어 URL 인코딩해 남긴다.
+     */
+    public String toLine() {
+        return transactionType + "," + URLEncoder.encode(accountNumber, StandardCharsets.UTF_8) + ","
+                + amount + "," + failedAt;
+    }
+
+    /**
+     * @throws IllegalArgumentException 형식이 맞지 않는 줄
+     */
+    public static FailedTransaction fromLine(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Malformed failed transaction line: " + line);
+        }
+        try {
+            return new FailedTransaction(
+                    TransactionType.valueOf(fields[0]),
+                    URLDecoder.decode(fields[1], StandardCharsets.UTF_8),
+                    Long.valueOf(fields[2]),
+                    LocalDateTime.parse(fields[3])
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed failed transaction line: " + line, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.account.dto;
+
+import com.example.account.type.ErrorCode;
+import com.example.account.type.IdempotencyStatus;
+import lombok.*;
+
+/**
+ * 멱등키로 처리한 요청의 상태와 결과. response 는 원래 응답의 JSON 이다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    private IdempotencyStatus status;
+    private String fingerprint;
+    private String response;
+    private ErrorCode errorCode;
+}
@@ -0,0 +1,21 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerBalance {
+    private String accountNumber;
+    private Long ledgerSequence;
+    private Long balance;
+    private Long recomputedBalance;
+    private Long checkpointSequence;
+    private Long replayedEntries;
+
+    public boolean isMatched() {
+        return balance.equals(recomputedBalance);
+    }
+}
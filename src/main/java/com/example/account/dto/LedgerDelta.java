@@ -0,0 +1,13 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+/**
+ * checkpoint 이후 성공 거래들의 합계. (TransactionRepository.sumLedgerDelta)
+ */
+@Getter
+@AllArgsConstructor
+public class LedgerDelta {
+    private Long entries;
+    private Long amount;
+}
@@ -0,0 +1,20 @@
+package com.example.account.dto;
+
+import com.example.account.type.LedgerMismatchType;
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class LedgerMismatch {
+    private Long accountId;
+    private Long sequenceNo;
+    private LedgerMismatchType type;
+    private Long expected;
+    private Long actual;
+
+    public String toCsvLine() {
+        return accountId + "," + sequenceNo + "," + type + ","
+                + (expected == null ? "" : expected) + "," + (actual == null ? "" : actual);
+    }
+}
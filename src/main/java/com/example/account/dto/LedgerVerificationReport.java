@@ -0,0 +1,32 @@
+package com.example.account.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@Builder
+public class LedgerVerificationReport {
+    private long accounts;
+    private long entries;
+    private long checkpoints;
+    private long mismatchCount;
+    /** 앞에서부터 최대 account.ledger.max-reported-mismatches 개 */
+    private List<LedgerMismatch> mismatches;
+    /** 나눠 훑은 계좌 id 구간 수 */
+    private int ranges;
+    /** 불일치 전체를 담은 CSV. account.ledger.report-dir 이 없으면 null */
+    private String reportFile;
+    private long elapsedMillis;
+
+    public long getEntriesPerSecond() {
+        return elapsedMillis == 0 ? entries : entries * 1000 / elapsedMillis;
+    }
+
+    /** 거래, checkpoint, 계좌를 합한 읽은 행 수 기준 */
+    public long getRowsPerSecond() {
+        long rows = entries + checkpoints + accounts;
+        return elapsedMillis == 0 ? rows : rows * 1000 / elapsedMillis;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.account.dto;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 거래 내역 keyset 페이지네이션 커서. 마지막으로 반환한 (transactedAt, id) 를 담는다.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionCursor {
+    private static final String DELIMITER = "|";
+
+    private LocalDateTime transactedAt;
+    private Long id;
+
+    public static TransactionCursor of(TransactionHistoryItem item) {
+        return new TransactionCursor(item.getTransactedAt(), item.getId());
+    }
+
+    public String encode() {
+        String raw = transactedAt + DELIMITER + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(DELIMITER);
+            return new TransactionCursor(
+                    LocalDateTime.parse(raw.substring(0, index)),
+                    Long.parseLong(raw.substring(index + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.account.dto;
 
 import com.example.account.domain.Transaction;
+import com.example.account.type.ErrorCode;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import lombok.*;
@@ -19,6 +20,23 @@ public class TransactionDto {
     private Long balanceSnapshot;
     private String transactionId;
     private LocalDateTime transactedAt;
+    private ErrorCode errorCode;
+
+    /**
+     * 조회용 projection 생성자. (TransactionRepository.findDtoByTransactionId)
+     */
+    public TransactionDto(
+            String accountNumber,
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Long amount,
+            Long balanceSnapshot,
+            String transactionId,
+            LocalDateTime transactedAt
+    ) {
+        this(accountNumber, transactionType, transactionResultType, amount,
+                balanceSnapshot, transactionId, transactedAt, null);
+    }
 
     public static TransactionDto fromEntity(Transaction transaction) {
         return TransactionDto.builder()
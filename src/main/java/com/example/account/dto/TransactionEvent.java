@@ -0,0 +1,31 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 한 건의 발행 이벤트. 발행은 at-least-once 이므로 받는 쪽은 eventId(또는 계좌별 sequenceNo)로 중복을 거른다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class TransactionEvent {
+    private Long eventId;
+    private String transactionId;
+    private String accountNumber;
+    /**
+     * 성공 거래의 계좌별 원장 순번. 실패 거래는 null.
+     */
+    private Long sequenceNo;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+}
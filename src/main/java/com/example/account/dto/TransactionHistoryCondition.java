@@ -0,0 +1,21 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionHistoryCondition {
+    private TransactionType transactionType;
+    private TransactionResultType transactionResult;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private TransactionCursor cursor;
+    private int size;
+}
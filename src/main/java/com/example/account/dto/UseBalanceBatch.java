@@ -0,0 +1,69 @@
+package com.example.account.dto;
+
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class UseBalanceBatch {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @Valid
+        @NotEmpty
+        @Size(max = 1000)
+        private List<UseBalance.Request> requests;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private List<Result> results;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private String accountNumber;
+        private TransactionResultType transactionResult;
+        private String transactionId;
+        private Long amount;
+        private Long balanceSnapshot;
+        private LocalDateTime transactedAt;
+        private ErrorCode errorCode;
+
+        public static Result from(TransactionDto dto) {
+            return Result.builder()
+                    .accountNumber(dto.getAccountNumber())
+                    .transactionResult(dto.getTransactionResultType())
+                    .transactionId(dto.getTransactionId())
+                    .amount(dto.getAmount())
+                    .balanceSnapshot(dto.getBalanceSnapshot())
+                    .transactedAt(dto.getTransactedAt())
+                    .errorCode(dto.getErrorCode())
+                    .build();
+        }
+
+        public static Result failed(UseBalance.Request request, ErrorCode errorCode) {
+            return Result.builder()
+                    .accountNumber(request.getAccountNumber())
+                    .transactionResult(TransactionResultType.F)
+                    .amount(request.getAmount())
+                    .errorCode(errorCode)
+                    .build();
+        }
+    }
+}
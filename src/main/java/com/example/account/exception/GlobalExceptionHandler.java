@@ -1,42 +1,66 @@
 package com.example.account.exception;
 
 import com.example.account.dto.ErrorResponse;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import static com.example.account.type.ErrorCode.INTERNAL_SERVER_ERROR;
 import static com.example.account.type.ErrorCode.INVALID_REQUEST;
 
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private final Map<ErrorCode, Counter> errorCounters = new EnumMap<>(ErrorCode.class);
+
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            errorCounters.put(errorCode, Counter.builder("account.errors")
+                    .tag("code", errorCode.name())
+                    .register(registry));
+        }
+    }
+
     @ExceptionHandler(AccountException.class)
     public ErrorResponse handleAccountException(AccountException e) {
         log.error("{} is occurred.", e.getErrorCode());
-        return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
+        return errorResponse(e.getErrorCode(), e.getErrorMessage());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ErrorResponse handleAccountException(MethodArgumentNotValidException e) {
         log.error("MethodArgumentNotValidException is occurred.", e);
-        return new ErrorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
+        return errorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ErrorResponse handleAccountException(DataIntegrityViolationException e) {
         log.error("DataIntegrityViolationException is occurred.", e);
-        return new ErrorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
+        return errorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
     }
 
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleAccountException(Exception e) {
         log.error("Exception is occurred.", e);
-        return new ErrorResponse(
+        return errorResponse(
                 INTERNAL_SERVER_ERROR,
                 INTERNAL_SERVER_ERROR.getDescription()
         );
     }
+
+    private ErrorResponse errorResponse(ErrorCode errorCode, String errorMessage) {
+        errorCounters.get(errorCode).increment();
+        return new ErrorResponse(errorCode, errorMessage);
+    }
 }
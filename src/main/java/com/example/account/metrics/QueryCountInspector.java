@@ -0,0 +1,55 @@
+package com.example.account.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hibernate 가 준비하는 SQL 수를 현재 스레드에 묶인 요청의 카운터에 센다.
+ * 요청이 다른 스레드로 넘어가면 propagate 로 카운터를 같이 넘긴다.
+ * SQL 은 그대로 돌려주므로 실행 계획에는 영향이 없다.
+ */
+public class QueryCountInspector implements StatementInspector {
+    private static final ThreadLocal<AtomicLong> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicLong counter = CURRENT.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return sql;
+    }
+
+    public static void bind(AtomicLong counter) {
+        CURRENT.set(counter);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 지금 스레드의 카운터를 task 를 실행하는 스레드에도 묶는다.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        AtomicLong counter = CURRENT.get();
+        if (counter == null) {
+            return task;
+        }
+        return () -> {
+            AtomicLong previous = CURRENT.get();
+            CURRENT.set(counter);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.account.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 요청마다 실행된 SQL 수를 http.server.requests.queries 로 기록한다.
+ * 카운터는 요청 속성에 두므로 CompletableFuture 응답의 ASYNC 재디스패치에서도 이어서 센다.
+ */
+@RequiredArgsConstructor
+public class QueryCountInterceptor implements AsyncHandlerInterceptor {
+    private static final String COUNTER_ATTRIBUTE = QueryCountInterceptor.class.getName() + ".counter";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object counter = request.getAttribute(COUNTER_ATTRIBUTE);
+        if (request.getDispatcherType() != DispatcherType.ASYNC || counter == null) {
+            counter = new AtomicLong();
+            request.setAttribute(COUNTER_ATTRIBUTE, counter);
+        }
+        QueryCountInspector.bind((AtomicLong) counter);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler
+    ) {
+        // 결과는 ASYNC 재디스패치의 afterCompletion 에서 기록한다.
+        QueryCountInspector.unbind();
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            Exception ex
+    ) {
+        QueryCountInspector.unbind();
+        Object counter = request.getAttribute(COUNTER_ATTRIBUTE);
+        if (counter == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.requests.queries")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                .register(meterRegistry)
+                .record(((AtomicLong) counter).get());
+    }
+}
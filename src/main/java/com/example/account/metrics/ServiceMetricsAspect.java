@@ -0,0 +1,61 @@
+package com.example.account.metrics;
+
+import com.example.account.exception.AccountException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서비스 메서드마다 account.service 타이머를 기록한다.
+ * 성공 타이머는 메서드별로 캐시해 호출마다 태그를 만들지 않는다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    static final String METRIC_NAME = "account.service";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    @Around("within(com.example.account.service..*) && @within(org.springframework.stereotype.Service)")
+    public Object record(ProceedingJoinPoint pjp) throws Throwable {
+        long startedAt = System.nanoTime();
+        try {
+            Object result = pjp.proceed();
+            successTimers.computeIfAbsent(((MethodSignature) pjp.getSignature()).getMethod(),
+                            method -> timer(method, "success"))
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable t) {
+            timer(((MethodSignature) pjp.getSignature()).getMethod(), outcome(t))
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            throw t;
+        }
+    }
+
+    private Timer timer(Method method, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String outcome(Throwable t) {
+        if (t instanceof AccountException) {
+            return ((AccountException) t).getErrorCode().name();
+        }
+        return t.getClass().getSimpleName();
+    }
+}
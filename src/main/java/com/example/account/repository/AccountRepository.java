@@ -1,19 +1,38 @@
 package com.example.account.repository;
 
+import com.example.account.cache.CacheNames;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountDto;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findFirstByOrderByIdDesc();
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
     Integer countByAccountUser(AccountUser accountUser);
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    @Cacheable(cacheNames = CacheNames.ACCOUNT_ID, unless = "#result == null")
+    @Query("select a.id from Account a where a.accountNumber = :accountNumber")
+    Optional<Long> findIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
     List<Account> findByAccountUser(AccountUser accountUser);
+
+    /**
+     * 계좌번호는 모두 10자리라 문자열 순서가 숫자 순서와 같다.
+     */
+    @Query("select max(a.accountNumber) from Account a")
+    Optional<String> findMaxAccountNumber();
+
+    @Query("select new com.example.account.dto.AccountDto(" +
+            "a.accountUser.id, a.accountNumber, a.balance, a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.accountUser.id = :userId")
+    List<AccountDto> findDtosByAccountUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,14 @@
+package com.example.account.repository;
+
+import com.example.account.type.AccountStatus;
+
+import java.time.LocalDateTime;
+
+public interface AccountRepositoryCustom {
+    /**
+     * 잔액이 충분하고 사용 중인 계좌일 때만 차감한다. 갱신된 행 수를 반환한다.
+     */
+    int debit(Long id, Long amount, AccountStatus status, LocalDateTime now);
+
+    int credit(Long id, Long amount, LocalDateTime now);
+}
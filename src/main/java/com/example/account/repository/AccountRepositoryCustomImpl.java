@@ -0,0 +1,73 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import com.example.account.type.AccountStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 조건부 잔액 UPDATE 는 JPQL 벌크 UPDATE 대신 JDBC 로 보낸다.
+ * hibernate 는 벌크 UPDATE 마다 대상 엔티티의 2차 캐시 region 을 통째로 비우므로, 바뀐 계좌 하나만 직접 지운다.
+ * 같은 트랜잭션의 연결을 쓰고, 앞서 flush 한 뒤 이 계좌만 영속성 컨텍스트에서 떼어 내 다음 조회가 바뀐 행을 읽게 한다.
+ */
+@RequiredArgsConstructor
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+    private static final String DEBIT_SQL =
+            "update account set balance = balance - ?, ledger_sequence = ledger_sequence + 1, " +
+                    "version = version + 1, updated_at = ? " +
+                    "where id = ? and balance >= ? and account_status = ?";
+
+    private static final String CREDIT_SQL =
+            "update account set balance = balance + ?, ledger_sequence = ledger_sequence + 1, " +
+                    "version = version + 1, updated_at = ? " +
+                    "where id = ?";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int debit(Long id, Long amount, AccountStatus status, LocalDateTime now) {
+        return update(id, DEBIT_SQL, amount, Timestamp.valueOf(now), id, amount, status.name());
+    }
+
+    @Override
+    public int credit(Long id, Long amount, LocalDateTime now) {
+        return update(id, CREDIT_SQL, amount, Timestamp.valueOf(now), id);
+    }
+
+    private int update(Long id, String sql, Object... args) {
+        entityManager.flush();
+        int updated = jdbcTemplate.update(sql, args);
+        entityManager.detach(entityManager.getReference(Account.class, id));
+        if (updated > 0) {
+            evict(id);
+        } else {
+            // 갱신되지 않은 이유를 커밋된 행으로 판단하도록, 다른 노드의 eviction 이 아직 오지 않은 캐시 값도 지운다.
+            entityManager.getEntityManagerFactory().getCache().evict(Account.class, id);
+        }
+        return updated;
+    }
+
+    /**
+     * 커밋 전에 다른 트랜잭션이 이전 값을 다시 캐시할 수 있어 트랜잭션이 끝난 뒤에도 한 번 더 지운다.
+     */
+    private void evict(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(Account.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(Account.class, id);
+                }
+            });
+        }
+    }
+}
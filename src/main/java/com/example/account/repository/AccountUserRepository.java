@@ -3,5 +3,8 @@ package com.example.account.repository;
 import com.example.account.domain.AccountUser;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+/**
+ * 사용자 조회는 hibernate 2차 캐시(account-user-entity region)가 맡는다.
+ */
 public interface AccountUserRepository extends JpaRepository<AccountUser, Long> {
 }
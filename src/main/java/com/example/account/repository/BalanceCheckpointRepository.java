@@ -0,0 +1,11 @@
+package com.example.account.repository;
+
+import com.example.account.domain.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+    Optional<BalanceCheckpoint> findFirstByAccountIdAndSequenceNoLessThanEqualOrderBySequenceNoDesc(
+            Long accountId, Long sequenceNo);
+}
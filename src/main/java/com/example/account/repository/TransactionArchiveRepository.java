@@ -0,0 +1,44 @@
+package com.example.account.repository;
+
+import com.example.account.domain.TransactionArchive;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface TransactionArchiveRepository
+        extends JpaRepository<TransactionArchive, Long>, TransactionArchiveRepositoryCustom {
+
+    boolean existsByTransactionId(String transactionId);
+
+    @Query("select new com.example.account.dto.TransactionDto(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, " +
+            "t.amount, t.balanceSnapshot, t.transactionId, t.transactedAt) " +
+            "from TransactionArchive t, Account a " +
+            "where a.id = t.accountId and t.transactionId = :transactionId")
+    Optional<TransactionDto> findDtoByTransactionId(@Param("transactionId") String transactionId);
+
+    /**
+     * TransactionRepository.streamHistory 와 같은 형태로 보관된 거래를 오래된 순으로 흘려 받는다.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new com.example.account.dto.TransactionHistoryItem(" +
+            "t.id, t.transactionType, t.transactionResultType, t.transactionId, " +
+            "t.amount, t.balanceSnapshot, t.transactedAt) " +
+            "from TransactionArchive t " +
+            "where t.accountId = :accountId " +
+            "order by t.transactedAt, t.id")
+    Stream<TransactionHistoryItem> streamHistory(@Param("accountId") Long accountId);
+}
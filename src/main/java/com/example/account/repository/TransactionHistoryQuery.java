@@ -0,0 +1,79 @@
+package com.example.account.repository;
+
+import com.example.account.dto.TransactionCursor;
+import com.example.account.dto.TransactionHistoryCondition;
+import com.example.account.dto.TransactionHistoryItem;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+/**
+ * transaction 과 transaction_archive 에 같은 조건으로 거는 거래 내역 keyset 조회.
+ * archive 로 옮겨도 id 가 유지되므로 두 테이블의 (transactedAt, id) 커서는 서로 이어진다.
+ */
+class TransactionHistoryQuery {
+    private TransactionHistoryQuery() {
+    }
+
+    /**
+     * @param entity      "Transaction" 처럼 별칭 t 로 조회할 엔티티
+     * @param accountPath 계좌 id 경로 (t.account.id, t.accountId)
+     */
+    static List<TransactionHistoryItem> find(
+            EntityManager entityManager,
+            String entity,
+            String accountPath,
+            Long accountId,
+            TransactionHistoryCondition condition,
+            int limit
+    ) {
+        StringBuilder jpql = new StringBuilder(
+                "select new com.example.account.dto.TransactionHistoryItem(" +
+                        "t.id, t.transactionType, t.transactionResultType, t.transactionId, " +
+                        "t.amount, t.balanceSnapshot, t.transactedAt) " +
+                        "from " + entity + " t " +
+                        "where " + accountPath + " = :accountId"
+        );
+        if (condition.getTransactionType() != null) {
+            jpql.append(" and t.transactionType = :transactionType");
+        }
+        if (condition.getTransactionResult() != null) {
+            jpql.append(" and t.transactionResultType = :transactionResult");
+        }
+        if (condition.getFrom() != null) {
+            jpql.append(" and t.transactedAt >= :from");
+        }
+        if (condition.getTo() != null) {
+            jpql.append(" and t.transactedAt < :to");
+        }
+        TransactionCursor cursor = condition.getCursor();
+        if (cursor != null) {
+            jpql.append(" and (t.transactedAt < :cursorAt" +
+                    " or (t.transactedAt = :cursorAt and t.id < :cursorId))");
+        }
+        jpql.append(" order by t.transactedAt desc, t.id desc");
+
+        TypedQuery<TransactionHistoryItem> query = entityManager
+                .createQuery(jpql.toString(), TransactionHistoryItem.class)
+                .setParameter("accountId", accountId)
+                .setMaxResults(limit);
+        if (condition.getTransactionType() != null) {
+            query.setParameter("transactionType", condition.getTransactionType());
+        }
+        if (condition.getTransactionResult() != null) {
+            query.setParameter("transactionResult", condition.getTransactionResult());
+        }
+        if (condition.getFrom() != null) {
+            query.setParameter("from", condition.getFrom());
+        }
+        if (condition.getTo() != null) {
+            query.setParameter("to", condition.getTo());
+        }
+        if (cursor != null) {
+            query.setParameter("cursorAt", cursor.getTransactedAt());
+            query.setParameter("cursorId", cursor.getId());
+        }
+        return query.getResultList();
+    }
+}
@@ -1,11 +1,59 @@
 package com.example.account.repository;
 
 import com.example.account.domain.Transaction;
+import com.example.account.dto.LedgerDelta;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
 
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    @Query("select new com.example.account.dto.TransactionDto(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, " +
+            "t.amount, t.balanceSnapshot, t.transactionId, t.transactedAt) " +
+            "from Transaction t join t.account a " +
+            "where t.transactionId = :transactionId")
+    Optional<TransactionDto> findDtoByTransactionId(@Param("transactionId") String transactionId);
+
+    /**
+     * (fromSequence, toSequence] 구간 성공 거래의 수와 잔액 변화량. (account_id, sequence_no) 인덱스를 탄다.
+     */
+    @Query("select new com.example.account.dto.LedgerDelta(count(t), coalesce(sum(" +
+            "case when t.transactionType = com.example.account.type.TransactionType.CANCEL " +
+            "then t.amount else -t.amount end), 0)) " +
+            "from Transaction t " +
+            "where t.account.id = :accountId and t.sequenceNo > :fromSequence and t.sequenceNo <= :toSequence")
+    LedgerDelta sumLedgerDelta(
+            @Param("accountId") Long accountId,
+            @Param("fromSequence") Long fromSequence,
+            @Param("toSequence") Long toSequence
+    );
+
+    /**
+     * 계좌의 전체 거래를 오래된 순으로 forward-only 커서에서 흘려 받는다. DTO 라 영속성 컨텍스트에 쌓이지 않는다.
+     * 읽기 트랜잭션 안에서 호출하고 다 읽으면 닫아야 한다.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new com.example.account.dto.TransactionHistoryItem(" +
+            "t.id, t.transactionType, t.transactionResultType, t.transactionId, " +
+            "t.amount, t.balanceSnapshot, t.transactedAt) " +
+            "from Transaction t " +
+            "where t.account.id = :accountId " +
+            "order by t.transactedAt, t.id")
+    Stream<TransactionHistoryItem> streamHistory(@Param("accountId") Long accountId);
 }
@@ -0,0 +1,10 @@
+package com.example.account.repository;
+
+import com.example.account.dto.TransactionHistoryCondition;
+import com.example.account.dto.TransactionHistoryItem;
+
+import java.util.List;
+
+public interface TransactionRepositoryCustom {
+    List<TransactionHistoryItem> findHistory(Long accountId, TransactionHistoryCondition condition, int limit);
+}
@@ -0,0 +1,19 @@
+package com.example.account.repository;
+
+import com.example.account.dto.TransactionHistoryCondition;
+import com.example.account.dto.TransactionHistoryItem;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TransactionHistoryItem> findHistory(Long accountId, TransactionHistoryCondition condition, int limit) {
+        return TransactionHistoryQuery.find(
+                entityManager, "Transaction", "t.account.id", accountId, condition, limit);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.account.service;
+
+public interface AccountLockProvider {
+    long DEFAULT_WAIT_MILLIS = 1000L;
+    long DEFAULT_LEASE_MILLIS = 15000L;
+
+    /**
+     * 대기 시간 안에 락을 얻지 못하면 ACCOUNT_TRANSACTION_LOCK 으로 실패한다.
+     * 락 저장소 자체의 오류는 그대로 전파된다.
+     */
+    void lock(String accountNumber, long waitMillis, long leaseMillis);
+
+    void unlock(String accountNumber);
+
+    default void lock(String accountNumber) {
+        lock(accountNumber, DEFAULT_WAIT_MILLIS, DEFAULT_LEASE_MILLIS);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.account.service;
+
+import com.example.account.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌번호 발급기 (hi/lo).
+ * Redis 시퀀스에서 blockSize 만큼의 번호 구간을 예약하고,
+ * 구간 안에서는 DB/Redis 접근 없이 AtomicLong 으로 번호를 발급한다.
+ * Redis 시퀀스가 없으면(첫 기동, flush, 만료) DB 의 가장 큰 계좌번호 다음부터 이어 가도록 먼저 채운다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountNumberAllocator {
+    static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+    static final String SEQUENCE_KEY = "ACNO:SEQ";
+
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+
+    @Value("${account.number.block-size:100}")
+    private long blockSize = 100;
+
+    private volatile Block block = Block.EMPTY;
+
+    public String next() {
+        while (true) {
+            Block current = block;
+            long number = current.next.getAndIncrement();
+            if (number < current.limit) {
+                return String.valueOf(number);
+            }
+            reserve(current);
+        }
+    }
+
+    private synchronized void reserve(Block exhausted) {
+        if (block != exhausted) {
+            return;
+        }
+        RAtomicLong sequence = redissonClient.getAtomicLong(SEQUENCE_KEY);
+        if (!sequence.isExists()) {
+            seed(sequence);
+        }
+        long limit = FIRST_ACCOUNT_NUMBER + sequence.addAndGet(blockSize);
+        log.debug("Account number block reserved. [{}, {})", limit - blockSize, limit);
+        block = new Block(limit - blockSize, limit);
+    }
+
+    /**
+     * 다른 노드가 먼저 채웠거나 이미 번호를 받아 갔으면 compareAndSet 이 실패하고 그 값을 그대로 쓴다.
+     */
+    private void seed(RAtomicLong sequence) {
+        long issued = accountRepository.findMaxAccountNumber()
+                .map(max -> Long.parseLong(max) - FIRST_ACCOUNT_NUMBER + 1)
+                .orElse(0L);
+        if (issued > 0 && sequence.compareAndSet(0, issued)) {
+            log.warn("Account number sequence seeded from the database. next: {}", FIRST_ACCOUNT_NUMBER + issued);
+        }
+    }
+
+    private static class Block {
+        private static final Block EMPTY = new Block(0, 0);
+
+        private final AtomicLong next;
+        private final long limit;
+
+        private Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
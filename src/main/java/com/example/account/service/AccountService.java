@@ -1,5 +1,6 @@
 package com.example.account.service;
 
+import com.example.account.cache.CacheNames;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
@@ -8,13 +9,14 @@ import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
 import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static com.example.account.type.AccountStatus.IN_USE;
 import static com.example.account.type.AccountStatus.UNREGISTERED;
@@ -25,27 +27,30 @@ import static com.example.account.type.AccountStatus.UNREGISTERED;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final LedgerService ledgerService;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.USER_ACCOUNTS, key = "#userId")
     public AccountDto createAccount(Long userId, Long initialBalance) {
         AccountUser accountUser = getAccountUser(userId);
 
         validateCreateAccount(accountUser);
 
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (String.valueOf(Integer.parseInt(account.getAccountNumber()) + 1)))
-                .orElse("1000000000");
-        return AccountDto.fromEntity(
-                accountRepository.save(
-                    Account.builder()
-                            .accountUser(accountUser)
-                            .accountStatus(IN_USE)
-                            .accountNumber(newAccountNumber)
-                            .balance(initialBalance)
-                            .registeredAt(LocalDateTime.now())
-                            .build()
-            )
+        String newAccountNumber = accountNumberAllocator.next();
+        // checkpoint 는 IDENTITY 로 바로 insert 되므로 계좌를 먼저 내려 보낸다.
+        Account account = accountRepository.saveAndFlush(
+                Account.builder()
+                        .accountUser(accountUser)
+                        .accountStatus(IN_USE)
+                        .accountNumber(newAccountNumber)
+                        .balance(initialBalance)
+                        .registeredAt(LocalDateTime.now())
+                        .build()
         );
+        // 초기 잔액이 원장의 시작점이다.
+        ledgerService.checkpointIfDue(account);
+        return AccountDto.fromEntity(account);
     }
 
     private void validateCreateAccount(AccountUser accountUser) {
@@ -64,6 +69,7 @@ public class AccountService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.USER_ACCOUNTS, key = "#userId")
     public AccountDto deleteAccount(Long userId, String accountNumber) {
         AccountUser accountUser = getAccountUser(userId);
         Account account = accountRepository.findByAccountNumber(accountNumber)
@@ -86,11 +92,10 @@ public class AccountService {
         }
     }
 
+    @Cacheable(cacheNames = CacheNames.USER_ACCOUNTS, key = "#userId")
     public List<AccountDto> getAccountsByUserId(Long userId) {
-        AccountUser accountUser = getAccountUser(userId);
-        return accountRepository.findByAccountUser(accountUser)
-                .stream().map(AccountDto::fromEntity)
-                .collect(Collectors.toList());
+        getAccountUser(userId);
+        return accountRepository.findDtosByAccountUserId(userId);
     }
 
     private AccountUser getAccountUser(Long userId) {
@@ -0,0 +1,160 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.metrics.QueryCountInspector;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 계좌별로 작업을 한 줄로 세워 공용 워커에서 순서대로 실행한다.
+ * 같은 계좌의 요청은 큐에서 기다리므로 락을 기다리며 스레드를 붙잡지 않고,
+ * 한 계좌에 요청이 몰려도 다른 계좌의 작업은 워커를 그대로 사용할 수 있다.
+ * 계좌별 대기 작업이 maxPendingPerAccount 를 넘으면 ACCOUNT_TRANSACTION_LOCK 으로 거절한다.
+ * workers 가 없으면 호출한 스레드에서 바로 실행한다.
+ */
+@Slf4j
+public class AccountTaskExecutor {
+    private static final int MAX_TASKS_PER_TURN = 16;
+
+    private final Executor workers;
+    private final int maxPendingPerAccount;
+    private final ConcurrentMap<String, SerialQueue> queues = new ConcurrentHashMap<>();
+
+    public AccountTaskExecutor(Executor workers, int maxPendingPerAccount) {
+        this.workers = workers;
+        this.maxPendingPerAccount = maxPendingPerAccount;
+    }
+
+    public static AccountTaskExecutor inline() {
+        return new AccountTaskExecutor(null, Integer.MAX_VALUE);
+    }
+
+    public <T> CompletableFuture<T> submit(String accountNumber, Supplier<T> task) {
+        if (workers == null) {
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        Task<T> queued = new Task<>(task);
+        while (true) {
+            SerialQueue queue = queues.computeIfAbsent(accountNumber, SerialQueue::new);
+            Boolean accepted = queue.offer(queued);
+            if (accepted == null) {
+                // 방금 비워져 맵에서 빠진 큐
+                continue;
+            }
+            if (!accepted) {
+                queued.fail(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+            }
+            return queued.future;
+        }
+    }
+
+    public void shutdown() {
+        if (workers instanceof ExecutorService) {
+            ((ExecutorService) workers).shutdown();
+        }
+    }
+
+    int pendingAccounts() {
+        return queues.size();
+    }
+
+    private class SerialQueue implements Runnable {
+        private final String accountNumber;
+        private final Queue<Task<?>> tasks = new ArrayDeque<>();
+        private boolean running;
+        private boolean retired;
+
+        SerialQueue(String accountNumber) {
+            this.accountNumber = accountNumber;
+        }
+
+        /**
+         * @return 큐에 넣었으면 true, 가득 찼으면 false, 이미 폐기된 큐면 null
+         */
+        synchronized Boolean offer(Task<?> task) {
+            if (retired) {
+                return null;
+            }
+            if (tasks.size() >= maxPendingPerAccount) {
+                return false;
+            }
+            tasks.add(task);
+            if (!running) {
+                running = true;
+                schedule();
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_TASKS_PER_TURN; i++) {
+                Task<?> task;
+                synchronized (this) {
+                    task = tasks.poll();
+                    if (task == null) {
+                        running = false;
+                        retired = true;
+                        queues.remove(accountNumber, this);
+                        return;
+                    }
+                }
+                task.run();
+            }
+            // 한 계좌가 워커를 독점하지 않도록 남은 작업은 다시 줄을 선다.
+            synchronized (this) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            try {
+                workers.execute(this);
+            } catch (RejectedExecutionException e) {
+                log.error("Account task rejected. accountNumber: {}", accountNumber);
+                Task<?> task;
+                while ((task = tasks.poll()) != null) {
+                    task.fail(e);
+                }
+                running = false;
+            }
+        }
+    }
+
+    private static class Task<T> implements Runnable {
+        private final Supplier<T> supplier;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Task(Supplier<T> supplier) {
+            // 워커에서 실행된 SQL 도 요청의 쿼리 수로 센다.
+            this.supplier = QueryCountInspector.propagate(supplier);
+        }
+
+        @Override
+        public void run() {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        void fail(Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+}
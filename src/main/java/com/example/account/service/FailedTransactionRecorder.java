@@ -0,0 +1,199 @@
+package com.example.account.service;
+
+import com.example.account.dto.FailedTransaction;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 실패 거래를 요청 스레드(계좌 락 구간) 밖에서 모아 저장한다.
+ * 큐가 가득 차면 offerTimeoutMillis 동안 호출자를 기다리게 하고(backpressure),
+ * 그래도 자리가 없거나 저장이 실패하면 spill 파일에 덧붙여 두었다가 한가할 때 다시 저장한다.
+ * 호출 스레드는 계좌 락을 잡고 있으므로 직접 저장하지 않는다. spill 파일이 없거나 쓸 수 없으면 로그만 남기고 버린다.
+ * 다시 읽을 수 없는 spill 줄은 quarantine 파일로 옮긴다.
+ */
+@Slf4j
+public class FailedTransactionRecorder {
+    private static final long REPLAY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final TransactionService transactionService;
+    private final BlockingQueue<FailedTransaction> queue;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final Path spillFile;
+    private final Object spillLock = new Object();
+    private final Thread worker;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = true;
+    private long lastReplayAt = System.nanoTime() - REPLAY_INTERVAL_NANOS;
+
+    public FailedTransactionRecorder(
+            TransactionService transactionService,
+            int capacity,
+            int batchSize,
+            long offerTimeoutMillis,
+            Path spillFile
+    ) {
+        this.transactionService = transactionService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.spillFile = spillFile;
+        this.worker = new Thread(this::run, "failed-transaction-recorder");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public void record(FailedTransaction failure) {
+        try {
+            if (running && queue.offer(failure, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!spill(List.of(failure))) {
+            drop(List.of(failure));
+        }
+    }
+
+    /**
+     * 저장도 spill 도 못 하고 버린 실패 거래 수
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public void shutdown() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                FailedTransaction first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpill();
+                    continue;
+                }
+                List<FailedTransaction> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!save(batch) && !spill(batch)) {
+                    drop(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                // worker 가 멈추면 큐가 다시 비워지지 않는다.
+                log.error("Failed transaction recorder failed. Continuing.", e);
+            }
+        }
+    }
+
+    private boolean save(List<FailedTransaction> failures) {
+        try {
+            transactionService.saveFailedTransactions(failures);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to save {} failed transactions.", failures.size(), e);
+            return false;
+        }
+    }
+
+    private void drop(List<FailedTransaction> failures) {
+        dropped.addAndGet(failures.size());
+        log.error("Dropped {} failed transactions: {}", failures.size(),
+                failures.stream().map(FailedTransaction::toLine).collect(Collectors.toList()));
+    }
+
+    private boolean spill(List<FailedTransaction> failures) {
+        if (spillFile == null) {
+            return false;
+        }
+        List<String> lines = failures.stream().map(FailedTransaction::toLine).collect(Collectors.toList());
+        synchronized (spillLock) {
+            try {
+                Files.write(spillFile, lines, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+                return true;
+            } catch (IOException e) {
+                log.error("Failed to spill {} failed transactions to {}.", failures.size(), spillFile, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * spill 파일을 옮겨 놓고 한 트랜잭션으로 저장한 뒤 지운다. 실패하면 다음 차례에 다시 시도한다.
+     * 읽을 수 없는 줄은 quarantine 파일로 옮기고 나머지만 저장한다.
+     */
+    private void replaySpill() {
+        if (spillFile == null || System.nanoTime() - lastReplayAt < REPLAY_INTERVAL_NANOS) {
+            return;
+        }
+        lastReplayAt = System.nanoTime();
+        Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+        try {
+            if (!Files.exists(replaying)) {
+                synchronized (spillLock) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replaying, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            List<FailedTransaction> failures = new ArrayList<>();
+            List<String> valid = new ArrayList<>();
+            List<String> malformed = new ArrayList<>();
+            for (String line : Files.readAllLines(replaying, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    failures.add(FailedTransaction.fromLine(line));
+                    valid.add(line);
+                } catch (IllegalArgumentException e) {
+                    malformed.add(line);
+                }
+            }
+            if (!malformed.isEmpty()) {
+                // 저장이 실패해 다시 읽을 때 같은 줄을 또 옮기지 않도록 남은 줄만 다시 쓴다.
+                quarantine(malformed);
+                Files.write(replaying, valid, StandardCharsets.UTF_8);
+            }
+            if (!failures.isEmpty() && !save(failures)) {
+                return;
+            }
+            Files.delete(replaying);
+            log.info("Replayed {} spilled failed transactions.", failures.size());
+        } catch (IOException e) {
+            log.error("Failed to replay {}.", replaying, e);
+        }
+    }
+
+    private void quarantine(List<String> lines) throws IOException {
+        Path quarantine = spillFile.resolveSibling(spillFile.getFileName() + ".quarantine");
+        Files.write(quarantine, lines, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        log.error("Moved {} malformed spilled lines to {}.", lines.size(), quarantine);
+    }
+}
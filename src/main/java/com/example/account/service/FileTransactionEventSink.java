@@ -0,0 +1,47 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 이벤트를 한 줄에 하나씩 JSON 으로 파일에 덧붙인다. 로컬 개발과 테스트용이다.
+ */
+public class FileTransactionEventSink implements TransactionEventSink {
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileTransactionEventSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<TransactionEvent> events) {
+        List<String> lines = new ArrayList<>(events.size());
+        try {
+            for (TransactionEvent event : events) {
+                lines.add(objectMapper.writeValueAsString(event));
+            }
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
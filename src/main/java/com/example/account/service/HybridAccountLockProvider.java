@@ -0,0 +1,34 @@
+package com.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 로컬 스트라이프 락을 먼저 잡아 같은 노드 안의 경쟁을 정리한 뒤 분산 락을 잡는다.
+ */
+@RequiredArgsConstructor
+public class HybridAccountLockProvider implements AccountLockProvider {
+    private final AccountLockProvider localLockProvider;
+    private final AccountLockProvider remoteLockProvider;
+
+    @Override
+    public void lock(String accountNumber, long waitMillis, long leaseMillis) {
+        long startedAt = System.currentTimeMillis();
+        localLockProvider.lock(accountNumber, waitMillis, leaseMillis);
+        try {
+            long remainingMillis = Math.max(0, waitMillis - (System.currentTimeMillis() - startedAt));
+            remoteLockProvider.lock(accountNumber, remainingMillis, leaseMillis);
+        } catch (RuntimeException e) {
+            localLockProvider.unlock(accountNumber);
+            throw e;
+        }
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        try {
+            remoteLockProvider.unlock(accountNumber);
+        } finally {
+            localLockProvider.unlock(accountNumber);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.account.service;
+
+import com.example.account.dto.IdempotencyRecord;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.IdempotencyStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 로 들어온 재시도 요청에 처음 요청의 결과를 그대로 돌려준다.
+ * 키가 없는 요청은 저장소를 거치지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    @Value("${account.idempotency.ttl:24h}")
+    private Duration ttl = Duration.ofHours(24);
+
+    // 처리 중 서버가 죽어도 키가 영원히 묶이지 않도록 짧게 둔다.
+    @Value("${account.idempotency.pending-ttl:30s}")
+    private Duration pendingTtl = Duration.ofSeconds(30);
+
+    public <T> CompletableFuture<T> execute(
+            String scope,
+            String idempotencyKey,
+            Object request,
+            Class<T> responseType,
+            Supplier<CompletableFuture<T>> action
+    ) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.failedFuture(new AccountException(ErrorCode.INVALID_REQUEST));
+        }
+        String key = scope + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        IdempotencyRecord pending = IdempotencyRecord.builder()
+                .status(IdempotencyStatus.PENDING)
+                .fingerprint(fingerprint)
+                .build();
+        // 선점 직후 키가 만료/삭제되는 경우만 한 번 더 시도한다.
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (idempotencyStore.claim(key, pending, pendingTtl)) {
+                return run(key, fingerprint, action);
+            }
+            Optional<IdempotencyRecord> record = idempotencyStore.find(key);
+            if (record.isPresent()) {
+                return replay(record.get(), fingerprint, responseType);
+            }
+        }
+        return CompletableFuture.failedFuture(new AccountException(ErrorCode.DUPLICATE_REQUEST_IN_PROGRESS));
+    }
+
+    private <T> CompletableFuture<T> run(String key, String fingerprint, Supplier<CompletableFuture<T>> action) {
+        CompletableFuture<T> future;
+        try {
+            future = action.get();
+        } catch (RuntimeException e) {
+            idempotencyStore.remove(key);
+            throw e;
+        }
+        // 결과가 저장된 뒤에 응답해야 같은 키의 재시도가 처음 결과를 본다.
+        return future
+                .handle((response, throwable) -> record(key, fingerprint, response, throwable))
+                .thenCompose(recorded -> recorded)
+                .thenCompose(recorded -> future);
+    }
+
+    private CompletableFuture<Void> record(String key, String fingerprint, Object response, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        if (cause == null) {
+            return save(key, IdempotencyRecord.builder()
+                    .status(IdempotencyStatus.COMPLETED)
+                    .fingerprint(fingerprint)
+                    .response(write(response))
+                    .build());
+        }
+        if (cause instanceof AccountException
+                && ((AccountException) cause).getErrorCode() != ErrorCode.ACCOUNT_TRANSACTION_LOCK) {
+            // 업무 검증 실패는 재시도해도 같으므로 결과로 남긴다.
+            return save(key, IdempotencyRecord.builder()
+                    .status(IdempotencyStatus.FAILED)
+                    .fingerprint(fingerprint)
+                    .errorCode(((AccountException) cause).getErrorCode())
+                    .build());
+        }
+        // 락 경합이나 장애는 재시도할 수 있도록 키를 풀어 준다. 못 지우면 pending-ttl 뒤에 풀린다.
+        return recover(() -> idempotencyStore.remove(key), e -> {
+            log.warn("Failed to release idempotency key {}.", key, e);
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * 결과를 못 남기면 선점 기록이 pending-ttl 뒤에 사라져 재시도가 다시 실행되므로, 선점 기록을 ttl 만큼 붙잡아 둔다.
+     */
+    private CompletableFuture<Void> save(String key, IdempotencyRecord record) {
+        return recover(() -> idempotencyStore.save(key, record, ttl), e -> {
+            log.error("Failed to save idempotency result of {}. Holding the claim for {}.", key, ttl, e);
+            return recover(() -> idempotencyStore.expire(key, ttl), expireFailure -> {
+                log.error("Failed to hold idempotency key {}. It expires after {}.", key, pendingTtl, expireFailure);
+                return CompletableFuture.completedFuture(null);
+            });
+        });
+    }
+
+    /**
+     * 저장소 호출이 future 를 돌려주기 전에 던진 예외도 같이 처리한다.
+     */
+    private static CompletableFuture<Void> recover(
+            Supplier<CompletableFuture<Void>> call,
+            Function<Throwable, CompletableFuture<Void>> fallback
+    ) {
+        CompletableFuture<Void> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            return fallback.apply(e);
+        }
+        return future.handle((ignored, throwable) -> throwable == null
+                        ? CompletableFuture.<Void>completedFuture(null)
+                        : fallback.apply(throwable))
+                .thenCompose(recovered -> recovered);
+    }
+
+    private <T> CompletableFuture<T> replay(IdempotencyRecord record, String fingerprint, Class<T> responseType) {
+        if (!Objects.equals(record.getFingerprint(), fingerprint)) {
+            return CompletableFuture.failedFuture(new AccountException(ErrorCode.IDEMPOTENCY_KEY_REUSED));
+        }
+        switch (record.getStatus()) {
+            case COMPLETED:
+                return CompletableFuture.completedFuture(read(record.getResponse(), responseType));
+            case FAILED:
+                return CompletableFuture.failedFuture(new AccountException(record.getErrorCode()));
+            default:
+                return CompletableFuture.failedFuture(new AccountException(ErrorCode.DUPLICATE_REQUEST_IN_PROGRESS));
+        }
+    }
+
+    private String fingerprint(Object request) {
+        return DigestUtils.md5DigestAsHex(write(request).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T read(String value, Class<T> type) {
+        try {
+            return objectMapper.readValue(value, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.account.service;
+
+import com.example.account.dto.IdempotencyRecord;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface IdempotencyStore {
+    /**
+     * 키가 비어 있을 때만 기록하고 true 를 반환한다. (원자적)
+     */
+    boolean claim(String key, IdempotencyRecord record, Duration ttl);
+
+    Optional<IdempotencyRecord> find(String key);
+
+    /**
+     * 기록이 저장소에 반영되면 완료된다.
+     */
+    CompletableFuture<Void> save(String key, IdempotencyRecord record, Duration ttl);
+
+    CompletableFuture<Void> remove(String key);
+
+    /**
+     * 기록은 그대로 두고 만료 시간만 바꾼다.
+     */
+    CompletableFuture<Void> expire(String key, Duration ttl);
+}
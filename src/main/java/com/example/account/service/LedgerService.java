@@ -0,0 +1,62 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.BalanceCheckpoint;
+import com.example.account.dto.LedgerBalance;
+import com.example.account.dto.LedgerDelta;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.BalanceCheckpointRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 성공 거래(sequenceNo 순)가 원장이고 Account.balance 는 그 결과를 들고 있는 값이다.
+ * N 번째 거래마다 checkpoint 를 남겨 두어 잔액을 마지막 checkpoint 이후의 거래만으로 다시 계산한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LedgerService {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Value("${account.ledger.checkpoint-interval:1000}")
+    private long checkpointInterval = 1000;
+
+    /**
+     * 계좌를 만들 때(순번 0)와 checkpointInterval 번째 거래마다 호출자의 트랜잭션 안에서 checkpoint 를 남긴다.
+     */
+    @Transactional
+    public void checkpointIfDue(Account account) {
+        if (account.getLedgerSequence() % checkpointInterval == 0) {
+            balanceCheckpointRepository.save(BalanceCheckpoint.of(account));
+        }
+    }
+
+    public LedgerBalance recomputeBalance(String accountNumber) {
+        Account account = accountRepository.findIdByAccountNumber(accountNumber)
+                .flatMap(accountRepository::findById)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        // 계좌를 읽은 시점의 순번까지만 본다. 그 순번까지의 거래는 계좌와 함께 커밋되었다.
+        Long sequence = account.getLedgerSequence();
+        BalanceCheckpoint checkpoint = balanceCheckpointRepository
+                .findFirstByAccountIdAndSequenceNoLessThanEqualOrderBySequenceNoDesc(account.getId(), sequence)
+                .orElseThrow(() -> new AccountException(ErrorCode.LEDGER_CHECKPOINT_NOT_FOUND));
+        LedgerDelta delta = transactionRepository.sumLedgerDelta(
+                account.getId(), checkpoint.getSequenceNo(), sequence);
+        return LedgerBalance.builder()
+                .accountNumber(accountNumber)
+                .ledgerSequence(sequence)
+                .balance(account.getBalance())
+                .recomputedBalance(checkpoint.getBalance() + delta.getAmount())
+                .checkpointSequence(checkpoint.getSequenceNo())
+                .replayedEntries(delta.getEntries())
+                .build();
+    }
+}
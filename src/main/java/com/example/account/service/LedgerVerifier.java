@@ -0,0 +1,387 @@
+package com.example.account.service;
+
+import com.example.account.dto.LedgerMismatch;
+import com.example.account.dto.LedgerVerificationReport;
+import com.example.account.type.LedgerMismatchType;
+import com.example.account.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * archive 를 포함한 원장 전체를 (계좌, 순번) 순으로 한 번 훑으며 checkpoint, 거래의 balanceSnapshot, 계좌 잔액이
+ * 거래를 차례로 반영한 값과 같은지 확인한다. 결과는 fetch size 단위로 흘려 받으므로 메모리는 행 수와 무관하다.
+ * 계좌를 range-size 개씩 id 구간으로 나눠 fork-join pool 에서 구간마다 읽기 전용 트랜잭션으로 훑는다.
+ * 읽기 전용 트랜잭션은 replica 가 있으면 replica 로 가고, 잠금 없이 읽으므로 사용 중인 계좌를 막지 않는다.
+ */
+@Slf4j
+@Component
+public class LedgerVerifier {
+    private static final int ENTRY = 0;
+    private static final int CHECKPOINT = 1;
+    private static final int ACCOUNT = 2;
+
+    // 계좌 id 구간 [?, ?] 의 원장. 같은 순번이면 거래 -> checkpoint -> 계좌 순으로 온다.
+    private static final String LEDGER_SQL =
+            "select account_id, sequence_no, " + ENTRY + " as kind, amount, balance_snapshot, transaction_type " +
+                    "from transaction where sequence_no is not null and account_id between ? and ? " +
+                    "union all " +
+                    "select account_id, sequence_no, " + ENTRY + ", amount, balance_snapshot, transaction_type " +
+                    "from transaction_archive where sequence_no is not null and account_id between ? and ? " +
+                    "union all " +
+                    "select account_id, sequence_no, " + CHECKPOINT + ", balance, null, null from balance_checkpoint " +
+                    "where account_id between ? and ? " +
+                    "union all " +
+                    "select id, ledger_sequence, " + ACCOUNT + ", balance, null, null from account " +
+                    "where id between ? and ? " +
+                    "order by 1, 2, 3";
+
+    private static final String ACCOUNT_IDS_SQL = "select id from account order by id";
+
+    private static final String REPORT_HEADER = "account_id,sequence_no,type,expected,actual";
+
+    private static final DateTimeFormatter REPORT_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${account.ledger.max-reported-mismatches:1000}")
+    private int maxReportedMismatches = 1000;
+
+    @Value("${account.ledger.verify-parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${account.ledger.verify-range-size:10000}")
+    private int rangeSize = 10_000;
+
+    @Value("${account.ledger.report-dir:}")
+    private String reportDir = "";
+
+    public LedgerVerifier(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${account.ledger.verify-fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${account.ledger.verify-cron:-}")
+    public void scheduledVerify() {
+        LedgerVerificationReport report = verify();
+        if (report.getMismatchCount() > 0) {
+            log.warn("Ledger mismatches: {}. first: {}", report.getMismatchCount(), report.getMismatches());
+        }
+    }
+
+    /**
+     * 호출자가 트랜잭션 안에 있으면 그 트랜잭션에서 구간을 차례로 훑는다.
+     */
+    public LedgerVerificationReport verify() {
+        long startedAt = System.currentTimeMillis();
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        List<Long> rangeStarts = inTransaction ? rangeStarts() : readOnlyTransaction.execute(status -> rangeStarts());
+        Path reportFile = reportDir.isBlank() ? null
+                : Paths.get(reportDir, "ledger-mismatches-" + LocalDateTime.now().format(REPORT_TIME) + ".csv");
+
+        Verification verification;
+        if (inTransaction) {
+            verification = new RangeTask(rangeStarts, 0, rangeStarts.size(), reportFile, false).compute();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                verification = pool.invoke(new RangeTask(rangeStarts, 0, rangeStarts.size(), reportFile, true));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        if (reportFile != null) {
+            writeReport(reportFile, rangeStarts.size());
+        }
+
+        LedgerVerificationReport report = LedgerVerificationReport.builder()
+                .accounts(verification.accounts)
+                .entries(verification.entries)
+                .checkpoints(verification.checkpoints)
+                .mismatchCount(verification.mismatchCount)
+                .mismatches(verification.mismatches)
+                .ranges(rangeStarts.size())
+                .reportFile(reportFile == null ? null : reportFile.toString())
+                .elapsedMillis(System.currentTimeMillis() - startedAt)
+                .build();
+        log.info("Ledger verified. accounts: {}, entries: {}, mismatches: {}, ranges: {}, {} rows/s, {} entries/s",
+                report.getAccounts(), report.getEntries(), report.getMismatchCount(), report.getRanges(),
+                report.getRowsPerSecond(), report.getEntriesPerSecond());
+        return report;
+    }
+
+    /**
+     * 계좌 id 를 rangeSize 개씩 끊은 구간의 시작 id. 첫 구간은 계좌 없는 원장도 보도록 가장 작은 값에서 시작한다.
+     */
+    private List<Long> rangeStarts() {
+        List<Long> starts = new ArrayList<>();
+        starts.add(Long.MIN_VALUE);
+        long[] index = {0};
+        jdbcTemplate.query(ACCOUNT_IDS_SQL, rs -> {
+            if (index[0] > 0 && index[0] % rangeSize == 0) {
+                starts.add(rs.getLong(1));
+            }
+            index[0]++;
+        });
+        return starts;
+    }
+
+    private Verification verifyRange(long from, long to, Path partFile) {
+        Verification verification = new Verification(maxReportedMismatches, partFile);
+        try {
+            jdbcTemplate.query(LEDGER_SQL, rs -> {
+                Object snapshot = rs.getObject(5);
+                verification.row(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getInt(3),
+                        rs.getLong(4),
+                        snapshot == null ? null : ((Number) snapshot).longValue(),
+                        rs.getString(6)
+                );
+            }, from, to, from, to, from, to, from, to);
+        } finally {
+            verification.closeReport();
+        }
+        return verification;
+    }
+
+    /**
+     * 구간별 파일을 구간 순서대로 이어 붙여 계좌 순으로 정렬된 보고서를 만든다.
+     */
+    private static void writeReport(Path reportFile, int ranges) {
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // 구간 파일은 힙에 올리지 않고 한 번 연 스트림으로 이어 붙인다.
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(reportFile))) {
+            out.write((REPORT_HEADER + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < ranges; i++) {
+                Path part = partFile(reportFile, i);
+                if (Files.exists(part)) {
+                    Files.copy(part, out);
+                    Files.delete(part);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path partFile(Path reportFile, int range) {
+        return reportFile == null ? null : reportFile.resolveSibling(reportFile.getFileName() + "." + range);
+    }
+
+    /**
+     * rangeStarts[lo, hi) 구간들을 반씩 나눠 훑고, 왼쪽 결과에 오른쪽 결과를 이어 붙인다.
+     */
+    private class RangeTask extends RecursiveTask<Verification> {
+        private final List<Long> rangeStarts;
+        private final int lo;
+        private final int hi;
+        private final Path reportFile;
+        private final boolean ownTransaction;
+
+        RangeTask(List<Long> rangeStarts, int lo, int hi, Path reportFile, boolean ownTransaction) {
+            this.rangeStarts = rangeStarts;
+            this.lo = lo;
+            this.hi = hi;
+            this.reportFile = reportFile;
+            this.ownTransaction = ownTransaction;
+        }
+
+        @Override
+        protected Verification compute() {
+            if (hi - lo == 1) {
+                long from = rangeStarts.get(lo);
+                long to = lo + 1 < rangeStarts.size() ? rangeStarts.get(lo + 1) - 1 : Long.MAX_VALUE;
+                Path partFile = partFile(reportFile, lo);
+                return ownTransaction
+                        ? readOnlyTransaction.execute(status -> verifyRange(from, to, partFile))
+                        : verifyRange(from, to, partFile);
+            }
+            int mid = (lo + hi) >>> 1;
+            RangeTask right = new RangeTask(rangeStarts, mid, hi, reportFile, ownTransaction);
+            if (ownTransaction) {
+                right.fork();
+            }
+            Verification left = new RangeTask(rangeStarts, lo, mid, reportFile, ownTransaction).compute();
+            return left.merge(ownTransaction ? right.join() : right.compute());
+        }
+    }
+
+    private static class Verification {
+        private final int maxReported;
+        private final Path reportFile;
+        private final List<LedgerMismatch> mismatches = new ArrayList<>();
+        private BufferedWriter reportWriter;
+        private long accounts;
+        private long entries;
+        private long checkpoints;
+        private long mismatchCount;
+
+        private long accountId = Long.MIN_VALUE;
+        private Long running;
+        private long lastSequence;
+        private boolean missingReported;
+
+        Verification(int maxReported, Path reportFile) {
+            this.maxReported = maxReported;
+            this.reportFile = reportFile;
+        }
+
+        Verification merge(Verification other) {
+            accounts += other.accounts;
+            entries += other.entries;
+            checkpoints += other.checkpoints;
+            mismatchCount += other.mismatchCount;
+            for (LedgerMismatch mismatch : other.mismatches) {
+                if (mismatches.size() >= maxReported) {
+                    break;
+                }
+                mismatches.add(mismatch);
+            }
+            return this;
+        }
+
+        void row(long accountId, long sequenceNo, int kind, long amount, Long snapshot, String transactionType) {
+            if (accountId != this.accountId) {
+                this.accountId = accountId;
+                running = null;
+                lastSequence = 0;
+                missingReported = false;
+            }
+            switch (kind) {
+                case ENTRY:
+                    entries++;
+                    entry(sequenceNo, amount, snapshot, transactionType);
+                    break;
+                case CHECKPOINT:
+                    checkpoints++;
+                    checkpoint(sequenceNo, amount);
+                    break;
+                default:
+                    accounts++;
+                    account(sequenceNo, amount);
+            }
+        }
+
+        private void entry(long sequenceNo, long amount, Long snapshot, String transactionType) {
+            if (running == null) {
+                missingCheckpoint(sequenceNo);
+                return;
+            }
+            if (sequenceNo != lastSequence + 1) {
+                mismatch(sequenceNo, LedgerMismatchType.SEQUENCE_GAP, lastSequence + 1, sequenceNo);
+            }
+            lastSequence = sequenceNo;
+            running += TransactionType.CANCEL.name().equals(transactionType) ? amount : -amount;
+            if (!Objects.equals(running, snapshot)) {
+                mismatch(sequenceNo, LedgerMismatchType.SNAPSHOT, running, snapshot);
+                // 이후 거래는 기록된 값을 기준으로 이어서 본다.
+                running = snapshot;
+            }
+        }
+
+        private void checkpoint(long sequenceNo, long balance) {
+            if (running == null) {
+                // 가장 이른 checkpoint 가 재계산의 시작점이다.
+                running = balance;
+                lastSequence = sequenceNo;
+                return;
+            }
+            if (running != balance) {
+                mismatch(sequenceNo, LedgerMismatchType.CHECKPOINT, running, balance);
+                running = balance;
+            }
+        }
+
+        private void account(long ledgerSequence, long balance) {
+            if (running == null) {
+                missingCheckpoint(ledgerSequence);
+                return;
+            }
+            if (ledgerSequence != lastSequence) {
+                mismatch(ledgerSequence, LedgerMismatchType.SEQUENCE_GAP, lastSequence, ledgerSequence);
+            }
+            if (running != balance) {
+                mismatch(ledgerSequence, LedgerMismatchType.BALANCE, running, balance);
+            }
+        }
+
+        private void missingCheckpoint(long sequenceNo) {
+            if (!missingReported) {
+                missingReported = true;
+                mismatch(sequenceNo, LedgerMismatchType.MISSING_CHECKPOINT, null, null);
+            }
+        }
+
+        private void mismatch(long sequenceNo, LedgerMismatchType type, Long expected, Long actual) {
+            mismatchCount++;
+            LedgerMismatch mismatch = new LedgerMismatch(accountId, sequenceNo, type, expected, actual);
+            if (mismatches.size() < maxReported) {
+                mismatches.add(mismatch);
+            }
+            if (reportFile != null) {
+                report(mismatch);
+            }
+        }
+
+        // 보고서에는 개수 제한 없이 모두 남긴다. 틀린 구간에서만 파일이 생긴다.
+        private void report(LedgerMismatch mismatch) {
+            try {
+                if (reportWriter == null) {
+                    Files.createDirectories(reportFile.toAbsolutePath().getParent());
+                    reportWriter = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8);
+                }
+                reportWriter.write(mismatch.toCsvLine());
+                reportWriter.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void closeReport() {
+            if (reportWriter == null) {
+                return;
+            }
+            try {
+                reportWriter.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
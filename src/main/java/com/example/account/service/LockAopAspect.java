@@ -1,32 +1,151 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.exception.AccountException;
+import com.example.account.type.BalanceUpdateMode;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.LockFailMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
 @Aspect
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
-    private final LockService lockService;
+    private final AccountLockProvider accountLockProvider;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Method, LockMeters> lockMeters = new ConcurrentHashMap<>();
+
+    @Value("${account.balance.mode:lock}")
+    private BalanceUpdateMode balanceUpdateMode = BalanceUpdateMode.LOCK;
+
+    @Value("${account.balance.max-attempts:3}")
+    private int maxAttempts = 3;
 
-    @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
+    @Around(value = "@annotation(accountLock) && args(request)", argNames = "accountLock,request")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws Throwable {
+        LockMeters meters = lockMeters.computeIfAbsent(
+                ((MethodSignature) pjp.getSignature()).getMethod(),
+                method -> new LockMeters(pjp.getSignature().toShortString()));
+        if (balanceUpdateMode == BalanceUpdateMode.OPTIMISTIC) {
+            return proceedWithRetry(pjp, meters);
+        }
         //lock
-        lockService.lock(request.getAccountNumber());
+        boolean locked = lock(meters, request.getAccountNumber(), accountLock);
+        long lockedAt = System.nanoTime();
         try {
             return pjp.proceed();
         } finally {
             //unlock
-            lockService.unlock(request.getAccountNumber());
+            if (locked) {
+                unlock(request.getAccountNumber());
+                meters.hold.record(System.nanoTime() - lockedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Object proceedWithRetry(ProceedingJoinPoint pjp, LockMeters meters) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return pjp.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    meters.failure("conflict").increment();
+                    log.warn("Balance update conflicted {} times.", attempt);
+                    throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                meters.retries.increment();
+            }
+        }
+    }
+
+    private boolean lock(LockMeters meters, String accountNumber, AccountLock accountLock) {
+        long startedAt = System.nanoTime();
+        try {
+            accountLockProvider.lock(accountNumber, accountLock.tryLockTime(), accountLock.leaseTime());
+            meters.recordWait("acquired", startedAt);
+            return true;
+        } catch (AccountException e) {
+            meters.recordWait("timeout", startedAt);
+            meters.failure("timeout").increment();
+            throw e;
+        } catch (RuntimeException e) {
+            meters.recordWait("error", startedAt);
+            meters.failure("error").increment();
+            if (accountLock.failMode() == LockFailMode.PROCEED) {
+                log.warn("Lock provider failed. Proceeding without lock.", e);
+                return false;
+            }
+            log.error("Lock provider failed.", e);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    private void unlock(String accountNumber) {
+        try {
+            accountLockProvider.unlock(accountNumber);
+        } catch (RuntimeException e) {
+            // lease 가 만료되어 이미 해제된 경우 등
+            log.error("Unlock failed. accountNumber: {}", accountNumber, e);
+        }
+    }
+
+    /**
+     * 엔드포인트별 지표. 호출마다 태그를 만들어 registry 를 조회하지 않도록 메서드마다 한 번 만든다.
+     */
+    private class LockMeters {
+        private final String endpoint;
+        private final Timer hold;
+        private final Counter retries;
+        private final ConcurrentMap<String, Timer> waits = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Counter> failures = new ConcurrentHashMap<>();
+
+        LockMeters(String endpoint) {
+            this.endpoint = endpoint;
+            this.hold = Timer.builder("account.lock.hold")
+                    .tag("endpoint", endpoint)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.retries = Counter.builder("account.balance.retries")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+
+        void recordWait(String outcome, long startedAt) {
+            waits.computeIfAbsent(outcome, key -> Timer.builder("account.lock.wait")
+                            .tag("endpoint", endpoint)
+                            .tag("outcome", key)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry))
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+
+        Counter failure(String reason) {
+            return failures.computeIfAbsent(reason, key -> Counter.builder("account.lock.failures")
+                    .tag("endpoint", endpoint)
+                    .tag("reason", key)
+                    .register(meterRegistry));
         }
     }
 }
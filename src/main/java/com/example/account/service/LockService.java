@@ -13,25 +13,26 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class LockService {
+public class LockService implements AccountLockProvider {
     private final RedissonClient redissonClient;
 
-    public void lock(String accountNumber) {
+    @Override
+    public void lock(String accountNumber, long waitMillis, long leaseMillis) {
         RLock lock = redissonClient.getLock(getLockKey(accountNumber));
 
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
+            boolean isLock = lock.tryLock(waitMillis, leaseMillis, TimeUnit.MILLISECONDS);
             if(!isLock) {
                 log.error("======Lock acquisition failed=====");
                 throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
             }
-        } catch (AccountException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Redis lock failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
         }
     }
 
+    @Override
     public void unlock(String accountNumber) {
         redissonClient.getLock(getLockKey(accountNumber)).unlock();
     }
@@ -0,0 +1,32 @@
+package com.example.account.service;
+
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.UseBalance;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 요청마다 계좌 락을 잡고 처리한다. (sync, async 모드)
+ */
+@RequiredArgsConstructor
+public class LockingTransactionDispatcher implements TransactionDispatcher {
+    private final AccountTaskExecutor accountTaskExecutor;
+    private final TransactionRequestService transactionRequestService;
+
+    @Override
+    public CompletableFuture<UseBalance.Response> useBalance(UseBalance.Request request) {
+        return accountTaskExecutor.submit(
+                request.getAccountNumber(),
+                () -> transactionRequestService.useBalance(request)
+        );
+    }
+
+    @Override
+    public CompletableFuture<CancelBalance.Response> cancelBalance(CancelBalance.Request request) {
+        return accountTaskExecutor.submit(
+                request.getAccountNumber(),
+                () -> transactionRequestService.cancelBalance(request)
+        );
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.account.service;
+
+import com.example.account.dto.IdempotencyRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 선점은 SET NX 한 번으로 끝난다. 결과 저장과 삭제는 스레드를 막지 않고 redis 응답으로 완료되는 future 를 돌려준다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisIdempotencyStore implements IdempotencyStore {
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean claim(String key, IdempotencyRecord record, Duration ttl) {
+        return bucket(key).trySet(write(record), ttl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return Optional.ofNullable(bucket(key).get()).map(this::read);
+    }
+
+    @Override
+    public CompletableFuture<Void> save(String key, IdempotencyRecord record, Duration ttl) {
+        return bucket(key).setAsync(write(record), ttl.toMillis(), TimeUnit.MILLISECONDS).toCompletableFuture();
+    }
+
+    @Override
+    public CompletableFuture<Void> remove(String key) {
+        return bucket(key).deleteAsync().toCompletableFuture().thenApply(deleted -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> expire(String key, Duration ttl) {
+        return bucket(key).expireAsync(ttl.toMillis(), TimeUnit.MILLISECONDS).toCompletableFuture()
+                .thenApply(updated -> null);
+    }
+
+    private RBucket<String> bucket(String key) {
+        return redissonClient.getBucket("IDEM:" + key, StringCodec.INSTANCE);
+    }
+
+    private String write(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private IdempotencyRecord read(String value) {
+        try {
+            return objectMapper.readValue(value, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
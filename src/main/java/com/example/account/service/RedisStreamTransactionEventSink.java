@@ -0,0 +1,58 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionEvent;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 이벤트를 redis stream 에 XADD 한다. 한 번의 publish 는 한 번의 pipeline(RBatch) 으로 보낸다.
+ */
+public class RedisStreamTransactionEventSink implements TransactionEventSink {
+    private final RedissonClient redissonClient;
+    private final String streamName;
+    private final int maxLength;
+
+    /**
+     * @param maxLength stream 길이의 대략적인 상한(XADD MAXLEN ~). 0 이면 자르지 않는다.
+     */
+    public RedisStreamTransactionEventSink(RedissonClient redissonClient, String streamName, int maxLength) {
+        this.redissonClient = redissonClient;
+        this.streamName = streamName;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public void publish(List<TransactionEvent> events) {
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+        RStreamAsync<String, String> stream = batch.getStream(streamName, StringCodec.INSTANCE);
+        for (TransactionEvent event : events) {
+            StreamAddArgs<String, String> args = StreamAddArgs.entries(fields(event));
+            stream.addAsync(maxLength > 0 ? args.trimNonStrict().maxLen(maxLength).noLimit() : args);
+        }
+        batch.execute();
+    }
+
+    private static Map<String, String> fields(TransactionEvent event) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("eventId", String.valueOf(event.getEventId()));
+        fields.put("transactionId", event.getTransactionId());
+        fields.put("accountNumber", event.getAccountNumber());
+        if (event.getSequenceNo() != null) {
+            fields.put("sequenceNo", String.valueOf(event.getSequenceNo()));
+        }
+        fields.put("transactionType", event.getTransactionType().name());
+        fields.put("transactionResultType", event.getTransactionResultType().name());
+        fields.put("amount", String.valueOf(event.getAmount()));
+        fields.put("balanceSnapshot", String.valueOf(event.getBalanceSnapshot()));
+        fields.put("transactedAt", event.getTransactedAt().toString());
+        return fields;
+    }
+}
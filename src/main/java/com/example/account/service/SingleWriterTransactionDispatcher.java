@@ -0,0 +1,197 @@
+package com.example.account.service;
+
+import com.example.account.dto.BalanceCommand;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 계좌번호 해시로 정해진 샤드 스레드 하나가 그 계좌의 모든 변경을 순서대로 적용한다. (단일 노드 전용)
+ * 샤드는 commitIntervalMillis 동안 명령을 모은 뒤 계좌마다 한 트랜잭션으로 묶어 커밋(group commit)하므로
+ * 단건 거래끼리는 계좌 락 없이도 겹치지 않고, hot 계좌는 요청 수보다 훨씬 적은 커밋으로 처리된다.
+ * 배치 거래와 계좌 해지는 계좌 락으로 따로 바꾸므로 그와의 충돌은 한 번 다시 적용해 흡수한다.
+ * 커밋이 끝난 뒤에 응답을 완료한다.
+ */
+@Slf4j
+public class SingleWriterTransactionDispatcher implements TransactionDispatcher {
+    private final TransactionService transactionService;
+    private final Shard[] shards;
+    private final long commitIntervalNanos;
+    private final int maxBatchSize;
+
+    public SingleWriterTransactionDispatcher(
+            TransactionService transactionService,
+            int shardCount,
+            int shardCapacity,
+            long commitIntervalMillis,
+            int maxBatchSize
+    ) {
+        this.transactionService = transactionService;
+        this.commitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(commitIntervalMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, shardCapacity);
+        }
+    }
+
+    @Override
+    public CompletableFuture<UseBalance.Response> useBalance(UseBalance.Request request) {
+        return submit(BalanceCommand.use(request)).thenApply(UseBalance.Response::from);
+    }
+
+    @Override
+    public CompletableFuture<CancelBalance.Response> cancelBalance(CancelBalance.Request request) {
+        return submit(BalanceCommand.cancel(request)).thenApply(CancelBalance.Response::from);
+    }
+
+    public void shutdown() throws InterruptedException {
+        for (Shard shard : shards) {
+            shard.running = false;
+        }
+        for (Shard shard : shards) {
+            shard.thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private CompletableFuture<TransactionDto> submit(BalanceCommand command) {
+        PendingCommand pending = new PendingCommand(command);
+        Shard shard = shardOf(command.getAccountNumber());
+        if (!shard.running || !shard.queue.offer(pending)) {
+            return CompletableFuture.failedFuture(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        }
+        return pending.future.thenApply(dto -> {
+            if (dto.getErrorCode() != null) {
+                // 실패 거래는 이미 같은 커밋에 저장되었다.
+                throw new AccountException(dto.getErrorCode());
+            }
+            return dto;
+        });
+    }
+
+    private Shard shardOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    private void commit(List<PendingCommand> batch) {
+        Map<String, List<PendingCommand>> byAccount = new LinkedHashMap<>();
+        for (PendingCommand pending : batch) {
+            byAccount.computeIfAbsent(pending.command.getAccountNumber(), k -> new ArrayList<>())
+                    .add(pending);
+        }
+        byAccount.forEach((accountNumber, pendings) -> {
+            List<BalanceCommand> commands = pendings.stream()
+                    .map(pending -> pending.command)
+                    .collect(Collectors.toList());
+            try {
+                List<TransactionDto> results = applyCommands(accountNumber, commands);
+                for (int i = 0; i < pendings.size(); i++) {
+                    pendings.get(i).future.complete(results.get(i));
+                }
+            } catch (RuntimeException e) {
+                if (!(e instanceof AccountException)) {
+                    log.error("Failed to apply commands. accountNumber: {}", accountNumber, e);
+                }
+                pendings.forEach(pending -> pending.future.completeExceptionally(e));
+            }
+        });
+    }
+
+    /**
+     * 충돌이면 새 트랜잭션에서 한 번 다시 적용하고, 그래도 충돌하면 락 경합과 같은 오류로 응답한다.
+     * 샤드 안에서는 순서대로 적용하므로 원장 순번의 유니크 위반도 다른 경로와의 충돌로 본다.
+     * (커밋 때 거래 insert 가 계좌 버전 검사보다 먼저 나간다)
+     */
+    private List<TransactionDto> applyCommands(String accountNumber, List<BalanceCommand> commands) {
+        try {
+            return transactionService.applyCommands(accountNumber, commands);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            log.info("Account {} changed outside the writer. Re-applying {} commands.", accountNumber, commands.size());
+        }
+        try {
+            return transactionService.applyCommands(accountNumber, commands);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            log.error("Account {} changed outside the writer again.", accountNumber, e);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    private class Shard implements Runnable {
+        private final BlockingQueue<PendingCommand> queue;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        Shard(int index, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "account-writer-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        @Override
+        public void run() {
+            List<PendingCommand> batch = new ArrayList<>(maxBatchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingCommand first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    collect(batch);
+                    commit(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                } finally {
+                    batch.clear();
+                }
+            }
+            PendingCommand left;
+            while ((left = queue.poll()) != null) {
+                left.future.completeExceptionally(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+            }
+        }
+
+        private void collect(List<PendingCommand> batch) throws InterruptedException {
+            long deadline = System.nanoTime() + commitIntervalNanos;
+            while (batch.size() < maxBatchSize) {
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                long remaining = deadline - System.nanoTime();
+                if (batch.size() >= maxBatchSize || remaining <= 0) {
+                    return;
+                }
+                PendingCommand next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+    }
+
+    private static class PendingCommand {
+        private final BalanceCommand command;
+        private final CompletableFuture<TransactionDto> future = new CompletableFuture<>();
+
+        PendingCommand(BalanceCommand command) {
+            this.command = command;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 단일 노드용 계좌 락. 계좌번호 해시로 고정 개수의 ReentrantLock 중 하나를 고른다.
+ * 로컬 락은 소유 스레드가 직접 해제하므로 leaseMillis 는 사용하지 않는다.
+ */
+@Slf4j
+public class StripedAccountLockProvider implements AccountLockProvider {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public StripedAccountLockProvider(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public void lock(String accountNumber, long waitMillis, long leaseMillis) {
+        try {
+            if (!stripeOf(accountNumber).tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+                log.error("======Lock acquisition failed=====");
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        stripeOf(accountNumber).unlock();
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private ReentrantLock stripeOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * transaction 테이블을 transacted_at 의 월 단위 구간으로 보고, 보관 기간이 지난 닫힌 구간을 transaction_archive 로 옮긴다.
+ * 보관 기간은 취소 가능 기간(1년)보다 짧을 수 없다. 옮긴 거래는 거래 확인에서만 archive 로 찾는다.
+ * 한 번에 batchSize 건씩 옮기고, 옮기기 전에 계좌별 마지막 보관 순번에 잔액 checkpoint 를 남겨
+ * 잔액 재계산이 hot 테이블만 읽도록 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionArchiver {
+    private static final int MIN_RETENTION_MONTHS = 12;
+
+    private static final String SELECT_BATCH_SQL =
+            "select id from transaction where transacted_at < :cutoff order by transacted_at, id limit :limit";
+
+    private static final String CHECKPOINT_SQL =
+            "insert into balance_checkpoint (account_id, sequence_no, balance, created_at, updated_at) " +
+                    "select t.account_id, t.sequence_no, t.balance_snapshot, :now, :now from transaction t " +
+                    "where t.id in (:ids) " +
+                    "and t.sequence_no = (select max(x.sequence_no) from transaction x " +
+                    "where x.id in (:ids) and x.account_id = t.account_id) " +
+                    "and not exists (select 1 from balance_checkpoint c " +
+                    "where c.account_id = t.account_id and c.sequence_no = t.sequence_no)";
+
+    private static final String COPY_SQL =
+            "insert into transaction_archive (id, created_at, updated_at, amount, balance_snapshot, transacted_at, " +
+                    "transaction_id, transaction_result_type, transaction_type, account_id, sequence_no, archived_at) " +
+                    "select id, created_at, updated_at, amount, balance_snapshot, transacted_at, " +
+                    "transaction_id, transaction_result_type, transaction_type, account_id, sequence_no, :now " +
+                    "from transaction where id in (:ids)";
+
+    private static final String DELETE_SQL = "delete from transaction where id in (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${account.archive.retention-months:12}")
+    private int retentionMonths = 12;
+
+    @Value("${account.archive.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Scheduled(cron = "${account.archive.cron:-}")
+    public void scheduledArchive() {
+        archive(LocalDate.now());
+    }
+
+    /**
+     * today 가 속한 달에서 retentionMonths 만큼 이전 달의 1일보다 앞선 거래를 옮긴다. 옮긴 건수를 반환한다.
+     */
+    public long archive(LocalDate today) {
+        LocalDateTime cutoff = cutoff(today);
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        long startedAt = System.currentTimeMillis();
+        long archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveBatch(namedJdbcTemplate, cutoff));
+            archived += moved;
+        } while (moved == batchSize);
+        log.info("Archived {} transactions before {} in {} ms.",
+                archived, cutoff, System.currentTimeMillis() - startedAt);
+        return archived;
+    }
+
+    /**
+     * createdAt 에 만들어진 거래가 이미 archive 로 옮겨졌을 수 있으면 true.
+     */
+    public boolean mayBeArchived(Instant createdAt) {
+        return LocalDateTime.ofInstant(createdAt, ZoneId.systemDefault()).isBefore(cutoff(LocalDate.now()));
+    }
+
+    private LocalDateTime cutoff(LocalDate today) {
+        return today.withDayOfMonth(1)
+                .minusMonths(Math.max(retentionMonths, MIN_RETENTION_MONTHS))
+                .atStartOfDay();
+    }
+
+    private int moveBatch(NamedParameterJdbcTemplate namedJdbcTemplate, LocalDateTime cutoff) {
+        List<Long> ids = namedJdbcTemplate.queryForList(SELECT_BATCH_SQL,
+                new MapSqlParameterSource()
+                        .addValue("cutoff", Timestamp.valueOf(cutoff))
+                        .addValue("limit", batchSize),
+                Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        namedJdbcTemplate.update(CHECKPOINT_SQL, parameters);
+        namedJdbcTemplate.update(COPY_SQL, parameters);
+        namedJdbcTemplate.update(DELETE_SQL, parameters);
+        return ids.size();
+    }
+}
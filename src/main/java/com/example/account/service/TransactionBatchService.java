@@ -0,0 +1,69 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+    private final TransactionService transactionService;
+    private final AccountLockProvider accountLockProvider;
+
+    public List<UseBalanceBatch.Result> useBalances(List<UseBalance.Request> requests) {
+        Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            indexesByAccount.computeIfAbsent(requests.get(i).getAccountNumber(), k -> new ArrayList<>())
+                    .add(i);
+        }
+
+        UseBalanceBatch.Result[] results = new UseBalanceBatch.Result[requests.size()];
+        indexesByAccount.forEach((accountNumber, indexes) -> {
+            List<UseBalance.Request> accountRequests = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                accountRequests.add(requests.get(index));
+            }
+            try {
+                List<TransactionDto> transactions = useBalancesWithLock(accountNumber, accountRequests);
+                for (int i = 0; i < indexes.size(); i++) {
+                    results[indexes.get(i)] = UseBalanceBatch.Result.from(transactions.get(i));
+                }
+            } catch (AccountException e) {
+                log.error("Failed to use balance in batch. {}", e.getErrorCode());
+                for (int index : indexes) {
+                    results[index] = UseBalanceBatch.Result.failed(requests.get(index), e.getErrorCode());
+                }
+            } catch (ConcurrencyFailureException e) {
+                // optimistic 모드에서 단건 거래와 경합한 경우
+                log.error("Balance of {} changed during batch.", accountNumber);
+                for (int index : indexes) {
+                    results[index] = UseBalanceBatch.Result.failed(
+                            requests.get(index), ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    private List<TransactionDto> useBalancesWithLock(String accountNumber, List<UseBalance.Request> requests) {
+        accountLockProvider.lock(accountNumber);
+        try {
+            return transactionService.useBalances(accountNumber, requests);
+        } finally {
+            accountLockProvider.unlock(accountNumber);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.account.service;
+
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.UseBalance;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 잔액 사용/취소 요청을 실행 방식(account.execution.mode)에 맞게 넘긴다.
+ */
+public interface TransactionDispatcher {
+    CompletableFuture<UseBalance.Response> useBalance(UseBalance.Request request);
+
+    CompletableFuture<CancelBalance.Response> cancelBalance(CancelBalance.Request request);
+}
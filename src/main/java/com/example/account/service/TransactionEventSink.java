@@ -0,0 +1,13 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionEvent;
+
+import java.util.List;
+
+public interface TransactionEventSink {
+    /**
+     * 받은 순서대로 발행하고, 모두 발행되었을 때만 정상 반환한다.
+     * 실패하면 예외를 던지고, relay 는 같은 이벤트들을 처음부터 다시 보낸다.
+     */
+    void publish(List<TransactionEvent> events);
+}
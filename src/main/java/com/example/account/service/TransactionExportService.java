@@ -0,0 +1,141 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 계좌의 전체 거래 내역을 한 행씩 읽어 바로 쓴다. 메모리 사용량은 내역 크기와 무관하다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TransactionExportService {
+    private static final String CSV_HEADER =
+            "transactionType,transactionResult,transactionId,amount,balanceSnapshot,transactedAt";
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 응답을 쓰기 시작하기 전에 계좌를 확인한다. 이후의 오류는 실패 응답으로 바꿀 수 없다.
+     */
+    public Long getAccountId(String accountNumber) {
+        return accountRepository.findIdByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
+    /**
+     * archive 로 옮겨진 거래를 먼저, 이어서 hot 테이블의 거래를 쓴다. 한 번에 커서 하나만 연다.
+     * out 은 닫지 않는다. 내보낸 거래 수를 반환한다.
+     */
+    public long export(Long accountId, ExportFormat format, OutputStream out) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        long count;
+        try (Stream<TransactionHistoryItem> items = transactionArchiveRepository.streamHistory(accountId)) {
+            count = writeAll(items.iterator(), writer);
+        }
+        try (Stream<TransactionHistoryItem> items = transactionRepository.streamHistory(accountId)) {
+            count += writeAll(items.iterator(), writer);
+        }
+        writer.finish();
+        log.info("Exported {} transactions of account {} as {} in {} ms.",
+                count, accountId, format, System.currentTimeMillis() - startedAt);
+        return count;
+    }
+
+    private static long writeAll(Iterator<TransactionHistoryItem> items, RowWriter writer) throws IOException {
+        long count = 0;
+        while (items.hasNext()) {
+            writer.write(items.next());
+            count++;
+        }
+        return count;
+    }
+
+    private interface RowWriter {
+        void write(TransactionHistoryItem item) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final ObjectWriter writer = objectMapper.writerFor(TransactionHistoryItem.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(TransactionHistoryItem item) throws IOException {
+            writer.writeValue(generator, item);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(TransactionHistoryItem item) throws IOException {
+            // 값에 쉼표나 따옴표가 들어가지 않으므로 인용하지 않는다.
+            writer.write(item.getTransactionType().name());
+            writer.write(',');
+            writer.write(item.getTransactionResult().name());
+            writer.write(',');
+            writer.write(item.getTransactionId());
+            writer.write(',');
+            writer.write(String.valueOf(item.getAmount()));
+            writer.write(',');
+            writer.write(String.valueOf(item.getBalanceSnapshot()));
+            writer.write(',');
+            writer.write(item.getTransactedAt().toString());
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
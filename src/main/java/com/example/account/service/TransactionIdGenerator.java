@@ -0,0 +1,98 @@
+package com.example.account.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 거래 아이디 발급기. UUID version 7 배치를 따르는 32자리 16진수 문자열을 만든다.
+ * <pre>
+ * 48 bit 생성 시각(ms) | 4 bit 버전(7) | 12 bit 순번 | 2 bit variant | 14 bit 노드 | 48 bit 난수
+ * </pre>
+ * 시각과 순번을 한 AtomicLong 에 담아 CAS 로 올리므로 락 없이 노드 안에서 단조 증가한다.
+ * 같은 ms 에 순번 4096 개를 다 쓰거나 시계가 뒤로 가면 앞 아이디의 다음 값을 쓴다.
+ * 시각 순으로 증가하므로 transaction_id 인덱스의 끝에 붙고, 아이디만으로 생성 시각을 알 수 있다.
+ */
+@Slf4j
+@Component
+public class TransactionIdGenerator {
+    static final int ID_LENGTH = 32;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 14;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0xFFFF_FFFF_FFFFL;
+    private static final char VERSION_CHAR = '7';
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final AtomicLong state = new AtomicLong();
+    private final long node;
+    private final LongSupplier clock;
+
+    public TransactionIdGenerator(@Value("${account.transaction-id.node-id:-1}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    TransactionIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0) {
+            // 노드가 겹쳐도 뒤의 48 bit 난수가 충돌을 막는다. 지정하면 노드 간 충돌 가능성이 없어진다.
+            nodeId = ThreadLocalRandom.current().nextInt(1 << NODE_BITS);
+            log.info("account.transaction-id.node-id is not set. Using random node id {}.", nodeId);
+        }
+        if (nodeId >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("node id must be less than " + (1 << NODE_BITS));
+        }
+        this.node = (long) nodeId << 48;
+        this.clock = clock;
+    }
+
+    public String next() {
+        long now = clock.getAsLong() << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            next = now > previous ? now : previous + 1;
+        } while (!state.compareAndSet(previous, next));
+
+        long high = (next >>> SEQUENCE_BITS) << 16 | VERSION | (next & ((1 << SEQUENCE_BITS) - 1));
+        long low = VARIANT | node | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        byte[] id = new byte[ID_LENGTH];
+        writeHex(id, 0, high);
+        writeHex(id, 16, low);
+        return new String(id, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 이 발급기가 만든 아이디면 생성 시각을 돌려준다. 이전의 무작위 UUID 아이디는 버전 문자가 달라 비어 있다.
+     */
+    public static Optional<Instant> createdAt(String transactionId) {
+        if (transactionId == null || transactionId.length() != ID_LENGTH
+                || transactionId.charAt(12) != VERSION_CHAR) {
+            return Optional.empty();
+        }
+        long millis = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = Character.digit(transactionId.charAt(i), 16);
+            if (digit < 0) {
+                return Optional.empty();
+            }
+            millis = millis << 4 | digit;
+        }
+        return Optional.of(Instant.ofEpochMilli(millis));
+    }
+
+    private static void writeHex(byte[] target, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            target[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.account.service;
+
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionEvent;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 거래를 저장하는 트랜잭션 안에서 같은 내용을 transaction_outbox 에 남긴다.
+ * relay 가 id 순으로 읽어 발행하고 지운다. 잔액 변경은 계좌마다 직렬화되므로(계좌 lock 또는 행 lock)
+ * 한 계좌의 이벤트는 커밋된 순서대로 id 를 받는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionOutbox {
+    private static final String INSERT_SQL =
+            "insert into transaction_outbox (transaction_id, account_number, sequence_no, transaction_type, " +
+                    "transaction_result_type, amount, balance_snapshot, transacted_at) " +
+                    "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SQL =
+            "select id, transaction_id, account_number, sequence_no, transaction_type, transaction_result_type, " +
+                    "amount, balance_snapshot, transacted_at from transaction_outbox order by id limit ?";
+
+    private static final String DELETE_SQL = "delete from transaction_outbox where id in (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 호출자의 트랜잭션에서 JDBC batch 로 insert 한다.
+     */
+    public void append(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(), (ps, transaction) -> {
+            ps.setString(1, transaction.getTransactionId());
+            ps.setString(2, transaction.getAccount().getAccountNumber());
+            ps.setObject(3, transaction.getSequenceNo());
+            ps.setString(4, transaction.getTransactionType().name());
+            ps.setString(5, transaction.getTransactionResultType().name());
+            ps.setObject(6, transaction.getAmount());
+            ps.setObject(7, transaction.getBalanceSnapshot());
+            ps.setTimestamp(8, Timestamp.valueOf(transaction.getTransactedAt()));
+        });
+    }
+
+    public List<TransactionEvent> poll(int limit) {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> TransactionEvent.builder()
+                .eventId(rs.getLong("id"))
+                .transactionId(rs.getString("transaction_id"))
+                .accountNumber(rs.getString("account_number"))
+                .sequenceNo(rs.getObject("sequence_no", Long.class))
+                .transactionType(TransactionType.valueOf(rs.getString("transaction_type")))
+                .transactionResultType(TransactionResultType.valueOf(rs.getString("transaction_result_type")))
+                .amount(rs.getObject("amount", Long.class))
+                .balanceSnapshot(rs.getObject("balance_snapshot", Long.class))
+                .transactedAt(rs.getTimestamp("transacted_at").toLocalDateTime())
+                .build(), limit);
+    }
+
+    public void delete(List<TransactionEvent> events) {
+        new NamedParameterJdbcTemplate(jdbcTemplate).update(DELETE_SQL, new MapSqlParameterSource(
+                "ids", events.stream().map(TransactionEvent::getEventId).collect(Collectors.toList())));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * transaction_outbox 를 id 순으로 batchSize 건씩 읽어 sink 로 발행하고, 발행된 batch 만 지운다.
+ * 발행 뒤 지우기 전에 실패하면 그 batch 를 다시 보내므로 전달은 at-least-once 다.
+ * 여러 노드 중 redis lock 을 잡은 한 노드만 relay 하므로 한 계좌의 이벤트는 id 순서대로 나간다.
+ * 요청 스레드는 outbox 에 쓰기만 하고 발행은 기다리지 않는다.
+ */
+@Slf4j
+public class TransactionOutboxRelay {
+    private final TransactionOutbox transactionOutbox;
+    private final TransactionEventSink transactionEventSink;
+    private final RLock relayLock;
+    private final int batchSize;
+    private final Counter publishedCounter;
+    private final Timer batchTimer;
+
+    /**
+     * @param relayLock 노드 사이에서 relay 를 하나로 묶는 lock. null 이면 단일 노드로 보고 잡지 않는다.
+     */
+    public TransactionOutboxRelay(
+            TransactionOutbox transactionOutbox,
+            TransactionEventSink transactionEventSink,
+            RLock relayLock,
+            int batchSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.transactionOutbox = transactionOutbox;
+        this.transactionEventSink = transactionEventSink;
+        this.relayLock = relayLock;
+        this.batchSize = batchSize;
+        this.publishedCounter = Counter.builder("account.outbox.published").register(meterRegistry);
+        this.batchTimer = Timer.builder("account.outbox.batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${account.outbox.poll-interval-millis:100}")
+    public void relay() {
+        boolean locked = false;
+        try {
+            // watchdog 이 살아 있는 동안 lease 를 늘린다. 노드가 죽으면 lock 이 풀려 다른 노드가 이어받는다.
+            locked = relayLock == null || relayLock.tryLock();
+            if (locked) {
+                relayPending();
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed. Retrying on the next poll.", e);
+        } finally {
+            if (locked && relayLock != null && relayLock.isHeldByCurrentThread()) {
+                relayLock.unlock();
+            }
+        }
+    }
+
+    private void relayPending() {
+        List<TransactionEvent> events;
+        do {
+            events = transactionOutbox.poll(batchSize);
+            if (events.isEmpty()) {
+                return;
+            }
+            long startedAt = System.nanoTime();
+            transactionEventSink.publish(events);
+            transactionOutbox.delete(events);
+            batchTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            publishedCounter.increment(events.size());
+        } while (events.size() == batchSize);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.FailedTransaction;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 잔액 사용/취소 요청 하나를 계좌 락 안에서 처리하고, 실패하면 실패 거래를 남긴다.
+ * 컨트롤러가 비동기로 응답하더라도 락은 실제 처리 구간에만 걸리도록 여기서 잡는다.
+ * 실패 거래는 큐에 넣기만 하고 저장은 락 밖에서 recorder 가 한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionRequestService {
+    private final TransactionService transactionService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+
+    @AccountLock
+    public UseBalance.Response useBalance(UseBalance.Request request) {
+        try {
+            return UseBalance.Response.from(
+                    transactionService.useBalance(
+                            request.getUserId(),
+                            request.getAccountNumber(),
+                            request.getAmount()
+                    )
+            );
+        } catch (AccountException e) {
+            log.error("Failed to use balance.");
+            failedTransactionRecorder.record(FailedTransaction.of(
+                    TransactionType.USE,
+                    request.getAccountNumber(),
+                    request.getAmount()
+            ));
+            throw e;
+        }
+    }
+
+    @AccountLock
+    public CancelBalance.Response cancelBalance(CancelBalance.Request request) {
+        try {
+            return CancelBalance.Response.from(
+                    transactionService.cancelBalance(
+                            request.getTransactionId(),
+                            request.getAccountNumber(),
+                            request.getAmount()
+                    )
+            );
+        } catch (AccountException e) {
+            log.error("Failed to cancel balance.");
+            failedTransactionRecorder.record(FailedTransaction.of(
+                    TransactionType.CANCEL,
+                    request.getAccountNumber(),
+                    request.getAmount()
+            ));
+            throw e;
+        }
+    }
+}
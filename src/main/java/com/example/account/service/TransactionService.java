@@ -1,24 +1,41 @@
 package com.example.account.service;
 
+import com.example.account.cache.AccountCache;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.BalanceCommand;
+import com.example.account.dto.FailedTransaction;
+import com.example.account.dto.TransactionCursor;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryCondition;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.dto.TransactionHistoryResponse;
+import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.TransactionArchiveRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceUpdateMode;
 import com.example.account.type.ErrorCode;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static com.example.account.type.TransactionResultType.F;
 import static com.example.account.type.TransactionResultType.S;
@@ -29,9 +46,20 @@ import static com.example.account.type.TransactionType.USE;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class TransactionService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final LedgerService ledgerService;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionArchiver transactionArchiver;
+    private final TransactionOutbox transactionOutbox;
+
+    @Value("${account.balance.mode:lock}")
+    private BalanceUpdateMode balanceUpdateMode = BalanceUpdateMode.LOCK;
 
     @Transactional
     public TransactionDto useBalance(
@@ -43,7 +71,12 @@ public class TransactionService {
                 .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
         Account account = getAccount(accountNumber);
         validateUseBalance(accountUser, account, amount);
-        account.useBalance(amount);
+        if (balanceUpdateMode == BalanceUpdateMode.OPTIMISTIC) {
+            account = debit(accountUser, account, amount);
+        } else {
+            account.useBalance(amount);
+        }
+        accountCache.evictUserAccounts(accountUser.getId());
         return TransactionDto.fromEntity(
                 saveAndGetTransaction(amount, account, S, USE)
         );
@@ -61,10 +94,109 @@ public class TransactionService {
         }
     }
 
+    /**
+     * 조건부 UPDATE 로 잔액을 차감한 뒤, 갱신된 계좌를 다시 읽어 반환한다.
+     * 갱신된 행이 없으면 최신 상태로 검증해 실패 사유를 돌려주고,
+     * 검증을 통과한다면 경합으로 보고 재시도 대상 예외를 던진다.
+     */
+    private Account debit(AccountUser accountUser, Account account, Long amount) {
+        int updated = accountRepository.debit(
+                account.getId(), amount, AccountStatus.IN_USE, LocalDateTime.now());
+        Account updatedAccount = accountRepository.findById(account.getId())
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        if (updated == 0) {
+            validateUseBalance(accountUser, updatedAccount, amount);
+            throw new ObjectOptimisticLockingFailureException(Account.class, account.getId());
+        }
+        accountCache.evictAccount(account.getId());
+        return updatedAccount;
+    }
+
+    private Account credit(Account account, Long amount) {
+        if (accountRepository.credit(account.getId(), amount, LocalDateTime.now()) == 0) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+        accountCache.evictAccount(account.getId());
+        return accountRepository.findById(account.getId())
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+
+    @Transactional
+    public List<TransactionDto> useBalances(String accountNumber, List<UseBalance.Request> requests) {
+        return applyCommands(
+                accountNumber,
+                requests.stream().map(BalanceCommand::use).collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * 한 계좌에 명령들을 순서대로 적용하고 거래 내역을 한 번에 저장한다.
+     * 실패한 명령은 실패 거래로 남기고 결과의 errorCode 에 사유를 담는다.
+     */
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
+    public List<TransactionDto> applyCommands(String accountNumber, List<BalanceCommand> commands) {
         Account account = getAccount(accountNumber);
-        saveAndGetTransaction(amount, account, F, USE);
+        List<Transaction> transactions = new ArrayList<>(commands.size());
+        List<ErrorCode> errorCodes = new ArrayList<>(commands.size());
+        for (BalanceCommand command : commands) {
+            try {
+                if (command.getTransactionType() == CANCEL) {
+                    applyCancel(account, command);
+                } else {
+                    applyUse(account, command);
+                }
+                transactions.add(newTransaction(command.getAmount(), account, S, command.getTransactionType()));
+                errorCodes.add(null);
+            } catch (AccountException e) {
+                transactions.add(newTransaction(command.getAmount(), account, F, command.getTransactionType()));
+                errorCodes.add(e.getErrorCode());
+            }
+        }
+        transactionRepository.saveAll(transactions);
+        transactionOutbox.append(transactions);
+        accountCache.evictUserAccounts(account.getAccountUser().getId());
+
+        List<TransactionDto> results = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            TransactionDto dto = TransactionDto.fromEntity(transactions.get(i));
+            dto.setErrorCode(errorCodes.get(i));
+            results.add(dto);
+        }
+        return results;
+    }
+
+    private void applyUse(Account account, BalanceCommand command) {
+        AccountUser accountUser = accountUserRepository.findById(command.getUserId())
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+        validateUseBalance(accountUser, account, command.getAmount());
+        account.useBalance(command.getAmount());
+    }
+
+    private void applyCancel(Account account, BalanceCommand command) {
+        Transaction transaction = getTransactionToCancel(command.getTransactionId());
+        validateCancelBalance(transaction, account, command.getAmount());
+        account.cancelBalance(command.getAmount());
+    }
+
+    /**
+     * 모아 둔 실패 요청을 한 번에 저장한다. 계좌가 없는 요청은 남길 곳이 없으므로 건너뛴다.
+     * 거래 일시는 실패 시각이고, balanceSnapshot 은 저장 시점의 잔액이다. 실패 거래는 원장 순번이 없어 검증에 쓰이지 않는다.
+     */
+    @Transactional
+    public void saveFailedTransactions(List<FailedTransaction> failures) {
+        Map<String, Optional<Account>> accounts = new HashMap<>();
+        List<Transaction> transactions = new ArrayList<>(failures.size());
+        for (FailedTransaction failure : failures) {
+            accounts.computeIfAbsent(failure.getAccountNumber(), accountNumber ->
+                    accountRepository.findIdByAccountNumber(accountNumber).flatMap(accountRepository::findById)
+            ).ifPresent(account -> {
+                Transaction transaction = newTransaction(failure.getAmount(), account, F, failure.getTransactionType());
+                transaction.setTransactedAt(failure.getFailedAt());
+                transactions.add(transaction);
+            });
+        }
+        transactionRepository.saveAll(transactions);
+        transactionOutbox.append(transactions);
     }
 
     private Transaction saveAndGetTransaction(
@@ -73,17 +205,37 @@ public class TransactionService {
             TransactionResultType transactionResultType,
             TransactionType transactionType
     ) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(transactionType)
-                        .transactionResultType(transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
-                        .build()
+        Transaction transaction = transactionRepository.save(
+                newTransaction(amount, account, transactionResultType, transactionType)
         );
+        transactionOutbox.append(List.of(transaction));
+        return transaction;
+    }
+
+    /**
+     * 성공 거래는 계좌의 현재 원장 순번을 받고, 순번이 checkpoint 간격에 닿으면 checkpoint 도 남긴다.
+     */
+    private Transaction newTransaction(
+            Long amount,
+            Account account,
+            TransactionResultType transactionResultType,
+            TransactionType transactionType
+    ) {
+        Long sequenceNo = null;
+        if (transactionResultType == S) {
+            sequenceNo = account.getLedgerSequence();
+            ledgerService.checkpointIfDue(account);
+        }
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(account.getBalance())
+                .transactionId(transactionIdGenerator.next())
+                .transactedAt(LocalDateTime.now())
+                .sequenceNo(sequenceNo)
+                .build();
     }
 
     @Transactional
@@ -92,16 +244,31 @@ public class TransactionService {
             String accountNumber,
             Long amount
     ) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        Transaction transaction = getTransactionToCancel(transactionId);
         Account account = getAccount(accountNumber);
         validateCancelBalance(transaction, account, amount);
-        account.cancelBalance(amount);
+        if (balanceUpdateMode == BalanceUpdateMode.OPTIMISTIC) {
+            account = credit(account, amount);
+        } else {
+            account.cancelBalance(amount);
+        }
+        accountCache.evictUserAccounts(account.getAccountUser().getId());
         return TransactionDto.fromEntity(
                 saveAndGetTransaction(amount, account, S, CANCEL)
         );
     }
 
+    /**
+     * archive 로 옮겨진 거래는 취소 기간이 지난 거래다.
+     */
+    private Transaction getTransactionToCancel(String transactionId) {
+        return transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new AccountException(
+                        transactionArchiveRepository.existsByTransactionId(transactionId)
+                                ? ErrorCode.TOO_OLD_ORDER_TO_CANCEL
+                                : ErrorCode.TRANSACTION_NOT_FOUND));
+    }
+
     private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
         if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
             throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UNMATCH);
@@ -114,21 +281,72 @@ public class TransactionService {
         }
     }
 
-    @Transactional
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
-        Account account = getAccount(accountNumber);
-        saveAndGetTransaction(amount, account, F, CANCEL);
+    public TransactionDto queryTransaction(String transactionId) {
+        // 아이디의 생성 시각으로 있을 법한 쪽을 먼저 찾는다. 이전 형식의 아이디는 hot 테이블부터 찾는다.
+        boolean archived = TransactionIdGenerator.createdAt(transactionId)
+                .map(transactionArchiver::mayBeArchived)
+                .orElse(false);
+        Optional<TransactionDto> transaction = archived
+                ? transactionArchiveRepository.findDtoByTransactionId(transactionId)
+                .or(() -> transactionRepository.findDtoByTransactionId(transactionId))
+                : transactionRepository.findDtoByTransactionId(transactionId)
+                .or(() -> transactionArchiveRepository.findDtoByTransactionId(transactionId));
+        return transaction.orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
     }
 
-    public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(
-                transactionRepository.findByTransactionId(transactionId)
-                        .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
-        );
+    public TransactionHistoryResponse getTransactionHistory(
+            String accountNumber,
+            TransactionHistoryCondition condition
+    ) {
+        if (condition.getSize() < 1 || condition.getSize() > MAX_HISTORY_PAGE_SIZE) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        int limit = condition.getSize() + 1;
+        List<TransactionHistoryItem> items = transactionRepository.findHistory(accountId, condition, limit);
+        if (items.size() < limit) {
+            // archive 의 거래는 hot 테이블의 어느 거래보다 이전이므로 이어서 채운다.
+            List<TransactionHistoryItem> archived = transactionArchiveRepository.findHistory(
+                    accountId, continueAfter(condition, items), limit - items.size());
+            if (!archived.isEmpty()) {
+                items = new ArrayList<>(items);
+                items.addAll(archived);
+            }
+        }
+
+        String nextCursor = null;
+        if (items.size() > condition.getSize()) {
+            items = items.subList(0, condition.getSize());
+            nextCursor = TransactionCursor.of(items.get(items.size() - 1)).encode();
+        }
+        return TransactionHistoryResponse.builder()
+                .accountNumber(accountNumber)
+                .transactions(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static TransactionHistoryCondition continueAfter(
+            TransactionHistoryCondition condition,
+            List<TransactionHistoryItem> items
+    ) {
+        if (items.isEmpty()) {
+            return condition;
+        }
+        return TransactionHistoryCondition.builder()
+                .transactionType(condition.getTransactionType())
+                .transactionResult(condition.getTransactionResult())
+                .from(condition.getFrom())
+                .to(condition.getTo())
+                .cursor(TransactionCursor.of(items.get(items.size() - 1)))
+                .size(condition.getSize())
+                .build();
     }
 
     private Account getAccount(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber)
+        return accountRepository.findIdByAccountNumber(accountNumber)
+                .flatMap(accountRepository::findById)
                 .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
     }
 }
@@ -19,7 +19,10 @@ public enum ErrorCode {
     TOO_OLD_ORDER_TO_CANCEL("1년이 지난 거래는 취소가 불가능합니다."),
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
-    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다.")
+    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다."),
+    DUPLICATE_REQUEST_IN_PROGRESS("같은 요청을 처리 중입니다."),
+    IDEMPOTENCY_KEY_REUSED("다른 요청에 이미 사용된 멱등키입니다."),
+    LEDGER_CHECKPOINT_NOT_FOUND("잔액 checkpoint 가 없습니다.")
     ;
     private final String description;
 }
@@ -0,0 +1,7 @@
+package com.example.account.type;
+
+public enum ExecutionMode {
+    SYNC,
+    ASYNC,
+    SINGLE_WRITER
+}
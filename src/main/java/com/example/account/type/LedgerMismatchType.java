@@ -0,0 +1,14 @@
+package com.example.account.type;
+
+public enum LedgerMismatchType {
+    /** 기준이 될 checkpoint 가 없다. */
+    MISSING_CHECKPOINT,
+    /** 거래 순번이 비었거나 계좌의 순번과 다르다. */
+    SEQUENCE_GAP,
+    /** 거래의 balanceSnapshot 이 재계산한 잔액과 다르다. */
+    SNAPSHOT,
+    /** checkpoint 잔액이 재계산한 잔액과 다르다. */
+    CHECKPOINT,
+    /** 계좌 잔액이 재계산한 잔액과 다르다. */
+    BALANCE
+}
@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+public enum LockFailMode {
+    /** 락 저장소 장애 시 요청을 거절한다. */
+    REJECT,
+    /** 락 저장소 장애 시 락 없이 진행한다. */
+    PROCEED
+}
@@ -0,0 +1,44 @@
+create sequence hibernate_sequence start with 1 increment by 1;
+
+create table account_user (
+    id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    name varchar(255),
+    primary key (id)
+);
+
+create table account (
+    id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    account_number varchar(255),
+    account_status varchar(255),
+    balance bigint,
+    registered_at timestamp,
+    un_registered_at timestamp,
+    account_user_id bigint,
+    primary key (id),
+    constraint uk_account_account_number unique (account_number),
+    constraint fk_account_account_user foreign key (account_user_id) references account_user (id)
+);
+
+create index idx_account_account_user_id on account (account_user_id);
+
+create table transaction (
+    id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    amount bigint,
+    balance_snapshot bigint,
+    transacted_at timestamp,
+    transaction_id varchar(255),
+    transaction_result_type varchar(255),
+    transaction_type varchar(255),
+    account_id bigint,
+    primary key (id),
+    constraint uk_transaction_transaction_id unique (transaction_id),
+    constraint fk_transaction_account foreign key (account_id) references account (id)
+);
+
+create index idx_transaction_account_id_transacted_at on transaction (account_id, transacted_at);
@@ -0,0 +1,2 @@
+create sequence account_seq start with 1 increment by 50;
+create sequence transaction_seq start with 1 increment by 50;
@@ -0,0 +1 @@
+alter table account add column version bigint default 0 not null;
@@ -0,0 +1,22 @@
+alter table account add column ledger_sequence bigint default 0 not null;
+
+alter table transaction add column sequence_no bigint;
+
+-- 성공 거래만 계좌별 순번을 가진다. (실패 거래는 null)
+create unique index uk_transaction_account_id_sequence_no on transaction (account_id, sequence_no);
+
+create table balance_checkpoint (
+    id bigint generated by default as identity,
+    created_at timestamp,
+    updated_at timestamp,
+    account_id bigint not null,
+    sequence_no bigint not null,
+    balance bigint not null,
+    primary key (id),
+    constraint uk_balance_checkpoint_account_id_sequence_no unique (account_id, sequence_no),
+    constraint fk_balance_checkpoint_account foreign key (account_id) references account (id)
+);
+
+-- 기존 잔액을 원장의 시작점으로 삼는다.
+insert into balance_checkpoint (account_id, sequence_no, balance, created_at, updated_at)
+select id, 0, balance, now(), now() from account;
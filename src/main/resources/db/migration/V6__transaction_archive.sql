@@ -0,0 +1,22 @@
+-- 취소 가능 기간(1년)이 지난 월 단위 구간의 거래를 옮겨 두는 cold 저장소.
+create table transaction_archive (
+    id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    amount bigint,
+    balance_snapshot bigint,
+    transacted_at timestamp,
+    transaction_id varchar(255),
+    transaction_result_type varchar(255),
+    transaction_type varchar(255),
+    account_id bigint,
+    sequence_no bigint,
+    archived_at timestamp not null,
+    primary key (id),
+    constraint uk_transaction_archive_transaction_id unique (transaction_id)
+);
+
+create index idx_transaction_archive_account_id_transacted_at on transaction_archive (account_id, transacted_at);
+
+-- archiver 가 오래된 구간을 고를 때 쓴다.
+create index idx_transaction_transacted_at on transaction (transacted_at);
@@ -0,0 +1,14 @@
+-- 거래와 같은 트랜잭션에서 쓰고, relay 가 발행한 뒤 지운다.
+-- id 는 insert 시점에 매겨지므로 한 계좌의 이벤트는 잔액이 바뀐 순서대로 id 를 받는다.
+create table transaction_outbox (
+    id bigint generated by default as identity,
+    transaction_id varchar(255) not null,
+    account_number varchar(255) not null,
+    sequence_no bigint,
+    transaction_type varchar(255),
+    transaction_result_type varchar(255),
+    amount bigint,
+    balance_snapshot bigint,
+    transacted_at timestamp,
+    primary key (id)
+);
@@ -0,0 +1,166 @@
+package com.example.account.cache;
+
+import com.example.account.config.CacheConfig;
+import com.example.account.config.HibernateCacheConfig;
+import com.example.account.domain.Account;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.StatementCounter;
+import com.example.account.service.LedgerService;
+import com.example.account.service.TransactionArchiver;
+import com.example.account.service.TransactionIdGenerator;
+import com.example.account.service.TransactionOutbox;
+import com.example.account.service.TransactionService;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceUpdateMode;
+import com.example.account.type.ErrorCode;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 호출마다 새 트랜잭션(새 영속성 컨텍스트)에서 읽도록 테스트 트랜잭션 없이 실행한다.
+ * 운영과 같이 spring 캐시(CacheConfig)도 함께 띄운다.
+ */
+@DataJpaTest(properties = "account.cache.statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({
+        StatementCounter.Config.class,
+        CacheConfig.class,
+        HibernateCacheConfig.class,
+        AccountCache.class,
+        TransactionService.class,
+        LedgerService.class,
+        TransactionIdGenerator.class,
+        TransactionOutbox.class
+})
+class SecondLevelCacheTest {
+    @MockBean
+    private TransactionArchiver transactionArchiver;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private SecondLevelCacheRelay secondLevelCacheRelay;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("같은 사용자의 잔액 사용을 반복해도 account_user 를 다시 읽지 않는다")
+    void repeatedUseBalanceDoesNotSelectAccountUser() {
+        //given
+        Account account = saveAccount("1000000001");
+        entityManagerFactory.getCache().evictAll();
+        transactionService.useBalance(1L, account.getAccountNumber(), 100L);
+        statistics().clear();
+        StatementCounter.INSTANCE.reset();
+        //when
+        for (int i = 0; i < 3; i++) {
+            transactionService.useBalance(1L, account.getAccountNumber(), 100L);
+        }
+        //then
+        assertThat(StatementCounter.INSTANCE.countContaining("account_user ")).isZero();
+        assertThat(statistics().getDomainDataRegionStatistics(CacheNames.ACCOUNT_USER_ENTITY).getHitCount())
+                .isEqualTo(3);
+        assertThat(statistics().getDomainDataRegionStatistics(CacheNames.ACCOUNT_ENTITY).getHitCount())
+                .isEqualTo(3);
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualTo(600L);
+    }
+
+    @Test
+    @DisplayName("다른 노드가 보낸 eviction 은 이 노드의 2차 캐시에서 지운다")
+    void evictionFromOtherNode() {
+        //given
+        Account account = saveAccount("1000000002");
+        accountRepository.findById(account.getId());
+        //when
+        secondLevelCacheRelay.onEviction(
+                new EntityCacheEviction("other-node", Account.class.getName(), account.getId()));
+        //then
+        assertThat(entityManagerFactory.getCache().contains(Account.class, account.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("잔액 차감은 바뀐 계좌만 2차 캐시에서 지우고 나머지 계좌는 남긴다")
+    void debitEvictsOnlyUpdatedAccount() {
+        //given
+        Account updated = saveAccount("1000000003");
+        Account other = saveAccount("1000000004");
+        accountRepository.findById(updated.getId());
+        accountRepository.findById(other.getId());
+        //when
+        int count = new TransactionTemplate(transactionManager).execute(status ->
+                accountRepository.debit(updated.getId(), 100L, AccountStatus.IN_USE, LocalDateTime.now()));
+        //then
+        assertThat(count).isEqualTo(1);
+        assertThat(entityManagerFactory.getCache().contains(Account.class, updated.getId())).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(Account.class, other.getId())).isTrue();
+        assertThat(accountRepository.findById(updated.getId()).orElseThrow().getBalance()).isEqualTo(900L);
+    }
+
+    @Test
+    @DisplayName("차감되지 않으면 캐시에 남은 이전 잔액이 아니라 커밋된 잔액으로 실패 사유를 정한다")
+    void debitFailureReadsCommittedBalance() {
+        //given
+        ReflectionTestUtils.setField(
+                AopTestUtils.getTargetObject(transactionService), "balanceUpdateMode", BalanceUpdateMode.OPTIMISTIC);
+        Account account = saveAccount("1000000005");
+        accountRepository.findById(account.getId());
+        // 다른 노드가 잔액을 바꿨지만 eviction 이 아직 오지 않은 상태
+        jdbcTemplate.update("update account set balance = 50, version = version + 1 where id = ?", account.getId());
+        //when
+        //then
+        try {
+            assertThatThrownBy(() -> transactionService.useBalance(1L, account.getAccountNumber(), 100L))
+                    .isInstanceOf(AccountException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.AMOUNT_EXCEED_BALANCE);
+        } finally {
+            ReflectionTestUtils.setField(
+                    AopTestUtils.getTargetObject(transactionService), "balanceUpdateMode", BalanceUpdateMode.LOCK);
+        }
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Account saveAccount(String accountNumber) {
+        return accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).orElseThrow())
+                .accountNumber(accountNumber)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.account.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RTopic;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+    @Mock
+    private RMapCache<Object, Object> remoteCache;
+    @Mock
+    private RTopic evictionTopic;
+
+    @Test
+    void localHitAndMiss() {
+        //given
+        TwoLevelCache cache = new TwoLevelCache("test", Caffeine.newBuilder().recordStats().build());
+        cache.put(1L, "joo");
+        //when
+        Object hit = cache.get(1L).get();
+        Object miss = cache.get(2L);
+        //then
+        assertThat(hit).isEqualTo("joo");
+        assertThat(miss).isNull();
+        assertThat(cache.getLocalCache().stats().hitCount()).isEqualTo(1);
+        assertThat(cache.getLocalCache().stats().missCount()).isEqualTo(1);
+        assertThat(cache.getPutCount()).isEqualTo(1);
+    }
+
+    @Test
+    void remoteHitFillsLocalCache() {
+        //given
+        TwoLevelCache cache = remoteBackedCache();
+        given(remoteCache.get(1L)).willReturn("joo");
+        //when
+        cache.get(1L);
+        Object second = cache.get(1L).get();
+        //then
+        assertThat(second).isEqualTo("joo");
+        assertThat(cache.getRemoteHitCount()).isEqualTo(1);
+        verify(remoteCache, times(1)).get(1L);
+    }
+
+    @Test
+    void putWritesThroughWithTtl() {
+        //given
+        TwoLevelCache cache = remoteBackedCache();
+        //when
+        cache.put(1L, "joo");
+        //then
+        verify(remoteCache).fastPut(1L, "joo", 60_000L, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void evictRemovesBothTiersAndBroadcasts() {
+        //given
+        TwoLevelCache cache = remoteBackedCache();
+        cache.put(1L, "joo");
+        //when
+        cache.evict(1L);
+        //then
+        assertThat(cache.getLocalCache().getIfPresent(1L)).isNull();
+        assertThat(cache.getEvictCount()).isEqualTo(1);
+        verify(remoteCache).fastRemove(1L);
+        verify(evictionTopic).publish(any(CacheEviction.class));
+    }
+
+    @Test
+    void loaderIsCalledOnlyOnMiss() {
+        //given
+        TwoLevelCache cache = new TwoLevelCache("test", Caffeine.newBuilder().build());
+        //when
+        cache.get(1L, () -> "joo");
+        Object value = cache.get(1L, () -> "ju");
+        //then
+        assertThat(value).isEqualTo("joo");
+    }
+
+    private TwoLevelCache remoteBackedCache() {
+        return new TwoLevelCache(
+                "test",
+                Caffeine.newBuilder().recordStats().build(),
+                remoteCache,
+                Duration.ofMinutes(1),
+                evictionTopic
+        );
+    }
+}
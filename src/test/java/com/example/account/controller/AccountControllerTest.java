@@ -3,8 +3,10 @@ package com.example.account.controller;
 import com.example.account.dto.AccountDto;
 import com.example.account.dto.CreateAccount;
 import com.example.account.dto.DeleteAccount;
+import com.example.account.dto.LedgerBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.service.AccountService;
+import com.example.account.service.LedgerService;
 import com.example.account.type.ErrorCode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -30,6 +32,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class AccountControllerTest {
     @MockBean
     private AccountService accountService;
+    @MockBean
+    private LedgerService ledgerService;
 
     @Autowired
     private MockMvc mockMvc;
@@ -111,4 +115,26 @@ class AccountControllerTest {
         //then
         then(accountService).should().deleteAccount(anyLong(), anyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void successRecomputeBalance() throws Exception {
+        //given
+        given(ledgerService.recomputeBalance(anyString()))
+                .willReturn(LedgerBalance.builder()
+                        .accountNumber("1234567890")
+                        .ledgerSequence(1500L)
+                        .balance(7000L)
+                        .recomputedBalance(7000L)
+                        .checkpointSequence(1000L)
+                        .replayedEntries(500L)
+                        .build());
+        //when
+        //then
+        mockMvc.perform(get("/account/1234567890/ledger"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recomputedBalance").value(7000))
+                .andExpect(jsonPath("$.replayedEntries").value(500))
+                .andExpect(jsonPath("$.matched").value(true));
+    }
+}
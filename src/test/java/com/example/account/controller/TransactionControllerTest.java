@@ -1,92 +1,205 @@
 package com.example.account.controller;
 
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.IdempotencyRecord;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.dto.TransactionHistoryResponse;
 import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.exception.AccountException;
+import com.example.account.service.IdempotencyService;
+import com.example.account.service.IdempotencyStore;
+import com.example.account.service.TransactionBatchService;
+import com.example.account.service.TransactionDispatcher;
+import com.example.account.service.TransactionExportService;
 import com.example.account.service.TransactionService;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.ExportFormat;
+import com.example.account.type.IdempotencyStatus;
 import com.example.account.type.TransactionType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.DigestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
 
 import static com.example.account.type.TransactionResultType.S;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
+@Import(IdempotencyService.class)
 class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
+    @MockBean
+    private TransactionBatchService transactionBatchService;
+    @MockBean
+    private TransactionDispatcher transactionDispatcher;
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+    @MockBean
+    private TransactionExportService transactionExportService;
 
     @Autowired
     private MockMvc mvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private TransactionController transactionController;
 
     @Test
     void successUseBalance() throws Exception {
         //given
-        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
-                .willReturn(TransactionDto.builder()
+        given(transactionDispatcher.useBalance(any()))
+                .willReturn(CompletableFuture.completedFuture(UseBalance.Response.from(TransactionDto.builder()
                         .accountNumber("1234567890")
                         .transactedAt(LocalDateTime.now())
                         .amount(12345L)
                         .transactionId("transationid")
                         .transactionResultType(S)
-                        .build());
+                        .build())));
         //when
-        mvc.perform(post("/transaction/use")
+        MvcResult result = mvc.perform(post("/transaction/use")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(
                         new UseBalance.Request(1L, "1234567899", 3000L)
                 ))
         )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //then
+        mvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accountNumber").value("1234567890"))
                 .andExpect(jsonPath("$.transactionResult").value("S"))
                 .andExpect(jsonPath("$.transactionId").value("transationid"))
                 .andExpect(jsonPath("$.amount").value("12345"));
+    }
+
+    @Test
+    void failUseBalance() throws Exception {
+        //given
+        given(transactionDispatcher.useBalance(any()))
+                .willReturn(CompletableFuture.failedFuture(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK)));
+        //when
+        MvcResult result = mvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "1234567899", 3000L)
+                        ))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //then
+        mvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value("ACCOUNT_TRANSACTION_LOCK"));
+    }
+
+    @Test
+    @DisplayName("같은 멱등키로 재시도하면 처음 응답을 돌려준다")
+    void replayUseBalanceWithIdempotencyKey() throws Exception {
+        //given
+        UseBalance.Request request = new UseBalance.Request(1L, "1234567899", 3000L);
+        UseBalance.Response original = UseBalance.Response.builder()
+                .accountNumber("1234567899")
+                .transactionResult(S)
+                .transactionId("transationid")
+                .amount(3000L)
+                .balanceSnapshot(7000L)
+                .transactedAt(LocalDateTime.now())
+                .build();
+        given(idempotencyStore.claim(eq("use:retry-1"), any(), any())).willReturn(false);
+        given(idempotencyStore.find("use:retry-1"))
+                .willReturn(Optional.of(IdempotencyRecord.builder()
+                        .status(IdempotencyStatus.COMPLETED)
+                        .fingerprint(DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(request)))
+                        .response(objectMapper.writeValueAsString(original))
+                        .build()));
+        //when
+        MvcResult result = mvc.perform(post("/transaction/use")
+                        .header(TransactionController.IDEMPOTENCY_KEY, "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
         //then
+        mvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value("transationid"))
+                .andExpect(jsonPath("$.balanceSnapshot").value("7000"));
+        verify(transactionDispatcher, never()).useBalance(any());
     }
 
     @Test
     void successCancelBalance() throws Exception {
         //given
-        given(transactionService.cancelBalance(anyString(), anyString(), anyLong()))
-                .willReturn(TransactionDto.builder()
+        given(transactionDispatcher.cancelBalance(any()))
+                .willReturn(CompletableFuture.completedFuture(CancelBalance.Response.from(TransactionDto.builder()
                         .accountNumber("1234567890")
                         .transactedAt(LocalDateTime.now())
                         .amount(12345L)
                         .transactionId("transationid")
                         .transactionResultType(S)
-                        .build());
+                        .build())));
         //when
-        mvc.perform(post("/transaction/cancel")
+        MvcResult result = mvc.perform(post("/transaction/cancel")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(
                                 new CancelBalance.Request("transactionId", "1234567899", 3000L)
                         ))
                 )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //then
+        mvc.perform(asyncDispatch(result))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accountNumber").value("1234567890"))
                 .andExpect(jsonPath("$.transactionResult").value("S"))
                 .andExpect(jsonPath("$.transactionId").value("transationid"))
                 .andExpect(jsonPath("$.amount").value("12345"));
-        //then
     }
 
     @Test
@@ -115,4 +228,144 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value("12345"))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void successUseBalances() throws Exception {
+        //given
+        given(transactionBatchService.useBalances(anyList()))
+                .willReturn(List.of(
+                        UseBalanceBatch.Result.builder()
+                                .accountNumber("1234567890")
+                                .transactionResult(S)
+                                .transactionId("transactionId")
+                                .amount(1000L)
+                                .balanceSnapshot(9000L)
+                                .build(),
+                        UseBalanceBatch.Result.failed(
+                                new UseBalance.Request(1L, "1234567890", 20000L),
+                                ErrorCode.AMOUNT_EXCEED_BALANCE
+                        )
+                ));
+        //when
+        mvc.perform(post("/transaction/use/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalanceBatch.Request(List.of(
+                                        new UseBalance.Request(1L, "1234567890", 1000L),
+                                        new UseBalance.Request(1L, "1234567890", 20000L)
+                                ))
+                        ))
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].transactionResult").value("S"))
+                .andExpect(jsonPath("$.results[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.results[1].transactionResult").value("F"))
+                .andExpect(jsonPath("$.results[1].errorCode").value("AMOUNT_EXCEED_BALANCE"));
+        //then
+    }
+
+    @Test
+    void successGetTransactionHistory() throws Exception {
+        //given
+        given(transactionService.getTransactionHistory(anyString(), any()))
+                .willReturn(TransactionHistoryResponse.builder()
+                        .accountNumber("1234567890")
+                        .transactions(List.of(
+                                TransactionHistoryItem.builder()
+                                        .id(10L)
+                                        .transactionType(TransactionType.USE)
+                                        .transactionResult(S)
+                                        .transactionId("transactionId")
+                                        .amount(1000L)
+                                        .transactedAt(LocalDateTime.now())
+                                        .build()
+                        ))
+                        .nextCursor("nextCursor")
+                        .build());
+        //when
+        //then
+        mvc.perform(get("/account/1234567890/transactions?size=1&transaction_type=USE"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.transactions[0].id").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("nextCursor"));
+    }
+
+    @Test
+    @DisplayName("gzip 을 받는 클라이언트에게는 압축해서 내려준다")
+    void exportTransactionHistoryWithGzip() throws Exception {
+        //given
+        given(transactionExportService.getAccountId("1234567890")).willReturn(1L);
+        willAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("{\"transactionId\":\"a\"}\n".getBytes());
+            return 1L;
+        }).given(transactionExportService).export(eq(1L), eq(ExportFormat.NDJSON), any());
+        //when
+        MvcResult result = mvc.perform(get("/account/1234567890/transactions/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8"))
+                .andReturn();
+        //then
+        byte[] body = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))
+                .readAllBytes();
+        assertThat(new String(body, StandardCharsets.UTF_8)).isEqualTo("{\"transactionId\":\"a\"}\n");
+    }
+
+    @Test
+    @DisplayName("q=0 으로 gzip 을 거절한 클라이언트에게는 압축하지 않는다")
+    void exportTransactionHistoryWithoutGzipWhenRejected() throws Exception {
+        //given
+        given(transactionExportService.getAccountId("1234567890")).willReturn(1L);
+        willAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("{\"transactionId\":\"a\"}\n".getBytes());
+            return 1L;
+        }).given(transactionExportService).export(eq(1L), eq(ExportFormat.NDJSON), any());
+        //when
+        //then
+        mvc.perform(get("/account/1234567890/transactions/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("{\"transactionId\":\"a\"}\n"));
+    }
+
+    @Test
+    @DisplayName("압축해서 쓰는 도중 실패하면 gzip 을 끝맺지 않는다")
+    void exportFailureDoesNotFinishGzip() throws Exception {
+        //given
+        given(transactionExportService.getAccountId("1234567890")).willReturn(1L);
+        willAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("{\"transactionId\":\"a\"}\n".getBytes());
+            throw new IllegalStateException("connection lost");
+        }).given(transactionExportService).export(eq(1L), eq(ExportFormat.NDJSON), any());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        //when
+        assertThatThrownBy(() -> transactionController.exportTransactionHistory(
+                "1234567890", ExportFormat.NDJSON, "gzip", response))
+                .isInstanceOf(IllegalStateException.class);
+        //then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThatThrownBy(() -> new GZIPInputStream(
+                new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes())
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void failExportTransactionHistory() throws Exception {
+        //given
+        given(transactionExportService.getAccountId(anyString()))
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        //when
+        //then
+        mvc.perform(get("/account/1234567890/transactions/export?format=CSV"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value("ACCOUNT_NOT_FOUND"));
+        verify(transactionExportService, never()).export(any(), any(), any());
+    }
+}
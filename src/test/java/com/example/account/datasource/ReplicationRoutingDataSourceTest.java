@@ -0,0 +1,159 @@
+package com.example.account.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.UserCredentialsDataSourceAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicationRoutingDataSourceTest {
+    private static final String LAG_QUERY = "select lag_seconds from replica_lag";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션은 replica, 나머지는 primary 로 간다")
+    void routeReadOnlyTransactionsToReplica() {
+        //given
+        DataSource primary = node("primary");
+        DataSource replica = node("replica");
+        Routing routing = routing(primary, List.of(replica), null);
+        //when
+        //then
+        assertThat(routing.read()).isEqualTo("replica");
+        assertThat(routing.write()).isEqualTo("primary");
+        assertThat(routing.withoutTransaction()).isEqualTo("primary");
+        assertThat(meterRegistry.get("account.datasource.routes").tag("target", "replica").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void spreadReadsAcrossReplicas() {
+        //given
+        Routing routing = routing(node("primary"), List.of(node("replica-a"), node("replica-b")), null);
+        //when
+        //then
+        assertThat(List.of(routing.read(), routing.read(), routing.read(), routing.read()))
+                .containsExactly("replica-a", "replica-b", "replica-a", "replica-b");
+    }
+
+    @Test
+    @DisplayName("지연이 maxLag 를 넘은 replica 는 빼고, 따라잡으면 다시 넣는다")
+    void laggingReplicaFallsBackToPrimary() {
+        //given
+        DataSource replica = node("replica");
+        JdbcTemplate replicaTemplate = new JdbcTemplate(replica);
+        replicaTemplate.execute("create table replica_lag (lag_seconds double)");
+        replicaTemplate.update("insert into replica_lag values (30)");
+        Routing routing = routing(node("primary"), List.of(replica), LAG_QUERY);
+        //when
+        routing.dataSource.checkReplicas();
+        String lagging = routing.read();
+        replicaTemplate.update("update replica_lag set lag_seconds = 0.5");
+        routing.dataSource.checkReplicas();
+        String caughtUp = routing.read();
+        //then
+        assertThat(lagging).isEqualTo("primary");
+        assertThat(caughtUp).isEqualTo("replica");
+        assertThat(meterRegistry.get("account.datasource.routes").tag("target", "fallback").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        //given
+        DriverManagerDataSource unreachable = new DriverManagerDataSource(
+                "jdbc:h2:tcp://localhost:1/unreachable", "sa", "");
+        Routing routing = routing(node("primary"), List.of(unreachable), null);
+        //when
+        String first = routing.read();
+        routing.dataSource.checkReplicas();
+        String afterCheck = routing.read();
+        //then
+        assertThat(first).isEqualTo("primary");
+        assertThat(afterCheck).isEqualTo("primary");
+        assertThat(meterRegistry.get("account.datasource.replica.available").tag("replica", "replica-0")
+                .gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("자격 증명을 받은 연결도 같은 기준으로 고른 풀에서 연다")
+    void routeConnectionsWithCredentials() {
+        //given
+        ReplicationRoutingDataSource dataSource = new ReplicationRoutingDataSource(
+                node("primary"), List.of(node("replica")), Duration.ofSeconds(5), null, meterRegistry);
+        UserCredentialsDataSourceAdapter credentials = new UserCredentialsDataSourceAdapter();
+        credentials.setTargetDataSource(dataSource);
+        credentials.setUsername("sa");
+        credentials.setPassword("");
+        Routing routing = new Routing(dataSource, credentials);
+        //when
+        //then
+        assertThat(routing.read()).isEqualTo("replica");
+        assertThat(routing.write()).isEqualTo("primary");
+    }
+
+    private Routing routing(DataSource primary, List<DataSource> replicas, String lagQuery) {
+        return new Routing(new ReplicationRoutingDataSource(
+                primary, replicas, Duration.ofSeconds(5), lagQuery, meterRegistry));
+    }
+
+    /**
+     * 서로 다른 H2 인스턴스. node 테이블에 자신의 이름을 담는다.
+     */
+    private static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private static class Routing {
+        private final ReplicationRoutingDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+
+        Routing(ReplicationRoutingDataSource dataSource) {
+            this(dataSource, dataSource);
+        }
+
+        Routing(ReplicationRoutingDataSource dataSource, DataSource target) {
+            DataSource proxy = new LazyConnectionDataSourceProxy(target);
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(proxy);
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+        }
+
+        String read() {
+            transactionTemplate.setReadOnly(true);
+            return transactionTemplate.execute(status -> node());
+        }
+
+        String write() {
+            transactionTemplate.setReadOnly(false);
+            return transactionTemplate.execute(status -> node());
+        }
+
+        String withoutTransaction() {
+            return node();
+        }
+
+        private String node() {
+            return jdbcTemplate.queryForObject("select name from node", String.class);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.account.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class QueryCountInterceptorTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new QueryController())
+                .addInterceptors(new QueryCountInterceptor(meterRegistry))
+                .build();
+    }
+
+    @Test
+    @DisplayName("CompletableFuture 응답은 ASYNC 재디스패치 뒤에 쿼리 수를 기록한다")
+    void countsQueriesAcrossAsyncDispatch() throws Exception {
+        //given
+        MvcResult result = mockMvc.perform(get("/queries/completed"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //when
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        //then
+        DistributionSummary summary = summary("/queries/completed");
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("다른 스레드에서 실행된 쿼리도 요청의 쿼리 수로 센다")
+    void countsQueriesOnWorkerThread() throws Exception {
+        //given
+        MvcResult result = mockMvc.perform(get("/queries/worker"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //when
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        //then
+        DistributionSummary summary = summary("/queries/worker");
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void countsQueriesOfSyncRequest() throws Exception {
+        //when
+        mockMvc.perform(get("/queries/sync"))
+                .andExpect(status().isOk());
+        //then
+        assertThat(summary("/queries/sync").totalAmount()).isEqualTo(1);
+    }
+
+    private DistributionSummary summary(String uri) {
+        return meterRegistry.get("http.server.requests.queries").tag("uri", uri).summary();
+    }
+
+    @RestController
+    static class QueryController {
+        private final QueryCountInspector inspector = new QueryCountInspector();
+
+        @GetMapping("/queries/completed")
+        CompletableFuture<String> completed() {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+            return CompletableFuture.completedFuture("ok");
+        }
+
+        @GetMapping("/queries/worker")
+        CompletableFuture<String> worker() {
+            inspector.inspect("select 1");
+            return CompletableFuture.supplyAsync(QueryCountInspector.propagate(() -> {
+                inspector.inspect("select 2");
+                inspector.inspect("select 3");
+                return "ok";
+            }));
+        }
+
+        @GetMapping("/queries/sync")
+        String sync() {
+            inspector.inspect("select 1");
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.account.metrics;
+
+import com.example.account.exception.AccountException;
+import com.example.account.service.TransactionService;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ServiceMetricsAspect serviceMetricsAspect;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+    @Mock
+    private MethodSignature signature;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        serviceMetricsAspect = new ServiceMetricsAspect(meterRegistry);
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.getMethod()).willReturn(
+                TransactionService.class.getMethod("queryTransaction", String.class));
+    }
+
+    @Test
+    void recordSuccessPerMethod() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed()).willReturn("ok");
+        //when
+        serviceMetricsAspect.record(proceedingJoinPoint);
+        serviceMetricsAspect.record(proceedingJoinPoint);
+        //then
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("class", "TransactionService")
+                .tag("method", "queryTransaction")
+                .tag("outcome", "success")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void recordErrorCodeAsOutcome() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed()).willThrow(new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        //when
+        assertThatThrownBy(() -> serviceMetricsAspect.record(proceedingJoinPoint))
+                .isInstanceOf(AccountException.class);
+        //then
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("outcome", "TRANSACTION_NOT_FOUND")
+                .timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountDto;
+import com.example.account.type.AccountStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(StatementCounter.Config.class)
+class AccountRepositoryTest {
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void debitOnlyWhenBalanceIsEnough() {
+        //given
+        Account account = saveAccount(AccountStatus.IN_USE, 1000L);
+        //when
+        int first = accountRepository.debit(account.getId(), 700L, AccountStatus.IN_USE, LocalDateTime.now());
+        int second = accountRepository.debit(account.getId(), 700L, AccountStatus.IN_USE, LocalDateTime.now());
+        //then
+        Account updated = accountRepository.findById(account.getId()).orElseThrow();
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(updated.getBalance()).isEqualTo(300L);
+        assertThat(updated.getVersion()).isEqualTo(account.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("잔액 차감은 그 계좌만 영속성 컨텍스트에서 떼어 내고 다른 엔티티는 그대로 둔다")
+    void debitDetachesOnlyAccount() {
+        //given
+        Account account = saveAccount(AccountStatus.IN_USE, 1000L);
+        AccountUser accountUser = account.getAccountUser();
+        //when
+        accountRepository.debit(account.getId(), 100L, AccountStatus.IN_USE, LocalDateTime.now());
+        //then
+        assertThat(entityManager.getEntityManager().contains(account)).isFalse();
+        assertThat(entityManager.getEntityManager().contains(accountUser)).isTrue();
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualTo(900L);
+    }
+
+    @Test
+    void debitSkipsUnregisteredAccount() {
+        //given
+        Account account = saveAccount(AccountStatus.UNREGISTERED, 1000L);
+        //when
+        int updated = accountRepository.debit(account.getId(), 100L, AccountStatus.IN_USE, LocalDateTime.now());
+        //then
+        assertThat(updated).isZero();
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualTo(1000L);
+    }
+
+    @Test
+    void accountsByUserIdReadsOneStatement() {
+        //given
+        saveAccount(AccountStatus.IN_USE, 1000L);
+        entityManager.clear();
+        StatementCounter.INSTANCE.reset();
+        //when
+        List<AccountDto> accounts = accountRepository.findDtosByAccountUserId(1L);
+        //then
+        assertThat(StatementCounter.INSTANCE.count()).isEqualTo(1);
+        assertThat(StatementCounter.INSTANCE.countContaining("account_user ")).isZero();
+        assertThat(accounts).extracting(AccountDto::getAccountNumber).contains("1000000000");
+        assertThat(accounts).extracting(AccountDto::getUserId).containsOnly(1L);
+    }
+
+    @Test
+    void maxAccountNumber() {
+        //given
+        assertThat(accountRepository.findMaxAccountNumber()).isEmpty();
+        saveAccount(AccountStatus.IN_USE, 1000L);
+        saveAccount("1000000123", AccountStatus.UNREGISTERED, 0L);
+        //when
+        String max = accountRepository.findMaxAccountNumber().orElseThrow();
+        //then
+        assertThat(max).isEqualTo("1000000123");
+    }
+
+    private Account saveAccount(AccountStatus status, Long balance) {
+        return saveAccount("1000000000", status, balance);
+    }
+
+    private Account saveAccount(String accountNumber, AccountStatus status, Long balance) {
+        return accountRepository.saveAndFlush(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).orElseThrow())
+                .accountNumber(accountNumber)
+                .accountStatus(status)
+                .balance(balance)
+                .registeredAt(LocalDateTime.now())
+                .build());
+    }
+}
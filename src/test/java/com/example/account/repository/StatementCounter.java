@@ -0,0 +1,68 @@
+package com.example.account.repository;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 실제 DB 로 전송된 statement(배치 포함)를 기록한다.
+ */
+public class StatementCounter implements QueryExecutionListener {
+    public static final StatementCounter INSTANCE = new StatementCounter();
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            statements.add(queryInfo.getQuery().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    public long count(String prefix) {
+        return statements.stream().filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    public long countContaining(String fragment) {
+        return statements.stream().filter(sql -> sql.contains(fragment)).count();
+    }
+
+    public long count() {
+        return statements.size();
+    }
+
+    @TestConfiguration
+    public static class Config {
+        @Bean
+        public static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .listener(INSTANCE)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
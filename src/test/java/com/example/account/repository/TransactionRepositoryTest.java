@@ -0,0 +1,152 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionCursor;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryCondition;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.account.type.TransactionResultType.F;
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.USE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(StatementCounter.Config.class)
+class TransactionRepositoryTest {
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void insertsAreSentInJdbcBatches() {
+        //given
+        Account account = saveAccount();
+        int count = 120;
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            transactions.add(Transaction.builder()
+                    .account(account)
+                    .transactionType(USE)
+                    .transactionResultType(S)
+                    .amount(10L)
+                    .balanceSnapshot(10000L - 10L * i)
+                    .transactionId(UUID.randomUUID().toString().replace("-", ""))
+                    .transactedAt(LocalDateTime.now())
+                    .build());
+        }
+        StatementCounter.INSTANCE.reset();
+        //when
+        transactionRepository.saveAll(transactions);
+        transactionRepository.flush();
+        //then
+        assertThat(StatementCounter.INSTANCE.count("insert into transaction "))
+                .isEqualTo((count + BATCH_SIZE - 1) / BATCH_SIZE);
+        assertThat(StatementCounter.INSTANCE.countContaining("next value for transaction_seq"))
+                .isLessThanOrEqualTo((count + BATCH_SIZE - 1) / BATCH_SIZE + 1);
+    }
+
+    @Test
+    void historyIsPagedByKeyset() {
+        //given
+        Account account = saveAccount();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            transactions.add(transaction(account, base.plusMinutes(i), i == 2 ? F : S));
+        }
+        transactions.add(transaction(account, base.plusMinutes(4), S));
+        transactionRepository.saveAllAndFlush(transactions);
+        //when
+        List<TransactionHistoryItem> firstPage = transactionRepository.findHistory(
+                account.getId(), TransactionHistoryCondition.builder().build(), 3);
+        List<TransactionHistoryItem> secondPage = transactionRepository.findHistory(
+                account.getId(),
+                TransactionHistoryCondition.builder()
+                        .cursor(TransactionCursor.of(firstPage.get(2)))
+                        .build(),
+                3);
+        List<TransactionHistoryItem> successOnly = transactionRepository.findHistory(
+                account.getId(),
+                TransactionHistoryCondition.builder().transactionResult(S).build(),
+                10);
+        //then
+        assertThat(firstPage).extracting(TransactionHistoryItem::getTransactedAt)
+                .containsExactly(base.plusMinutes(4), base.plusMinutes(4), base.plusMinutes(3));
+        assertThat(secondPage).extracting(TransactionHistoryItem::getTransactedAt)
+                .containsExactly(base.plusMinutes(2), base.plusMinutes(1), base);
+        assertThat(successOnly).hasSize(5);
+    }
+
+    @Test
+    void queryTransactionReadsOneStatement() {
+        //given
+        Account account = saveAccount();
+        Transaction saved = transactionRepository.saveAndFlush(transaction(account, LocalDateTime.now(), S));
+        entityManager.clear();
+        StatementCounter.INSTANCE.reset();
+        //when
+        TransactionDto dto = transactionRepository.findDtoByTransactionId(saved.getTransactionId()).orElseThrow();
+        //then
+        assertThat(StatementCounter.INSTANCE.count()).isEqualTo(1);
+        assertThat(StatementCounter.INSTANCE.countContaining("account_user ")).isZero();
+        assertThat(dto.getAccountNumber()).isEqualTo("1000000000");
+        assertThat(dto.getTransactionId()).isEqualTo(saved.getTransactionId());
+    }
+
+    @Test
+    void transactionDoesNotLoadAccountGraph() {
+        //given
+        Account account = saveAccount();
+        Transaction saved = transactionRepository.saveAndFlush(transaction(account, LocalDateTime.now(), S));
+        entityManager.clear();
+        StatementCounter.INSTANCE.reset();
+        //when
+        Transaction transaction = transactionRepository.findByTransactionId(saved.getTransactionId()).orElseThrow();
+        //then
+        assertThat(transaction.getAccount().getId()).isEqualTo(account.getId());
+        assertThat(StatementCounter.INSTANCE.count()).isEqualTo(1);
+    }
+
+    private Transaction transaction(Account account, LocalDateTime transactedAt, TransactionResultType resultType) {
+        return Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(resultType)
+                .amount(10L)
+                .balanceSnapshot(10000L)
+                .transactionId(UUID.randomUUID().toString().replace("-", ""))
+                .transactedAt(transactedAt)
+                .build();
+    }
+
+    private Account saveAccount() {
+        return accountRepository.saveAndFlush(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).orElseThrow())
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+    }
+}
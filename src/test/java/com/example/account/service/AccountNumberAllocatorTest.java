@@ -0,0 +1,129 @@
+package com.example.account.service;
+
+import com.example.account.repository.AccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+    @InjectMocks
+    private AccountNumberAllocator accountNumberAllocator;
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RAtomicLong sequence;
+    @Mock
+    private AccountRepository accountRepository;
+
+    private final AtomicLong redisValue = new AtomicLong();
+
+    @Test
+    void firstAccountNumber() {
+        //given
+        givenSequence(100L);
+        //when
+        String accountNumber = accountNumberAllocator.next();
+        //then
+        assertThat(accountNumber).isEqualTo("1000000000");
+    }
+
+    @Test
+    void reserveBlockOnlyWhenExhausted() {
+        //given
+        givenSequence(10L);
+        //when
+        for (int i = 0; i < 25; i++) {
+            accountNumberAllocator.next();
+        }
+        //then
+        verify(sequence, times(3)).addAndGet(10L);
+        assertThat(accountNumberAllocator.next()).isEqualTo("1000000025");
+    }
+
+    @Test
+    @DisplayName("Redis 시퀀스가 없으면 DB 의 가장 큰 계좌번호 다음부터 발급한다")
+    void seedSequenceFromDatabase() {
+        //given
+        givenSequence(100L);
+        given(sequence.isExists()).willReturn(false);
+        given(accountRepository.findMaxAccountNumber()).willReturn(Optional.of("1000000499"));
+        given(sequence.compareAndSet(0L, 500L)).willAnswer(invocation -> redisValue.compareAndSet(0L, 500L));
+        //when
+        String accountNumber = accountNumberAllocator.next();
+        //then
+        assertThat(accountNumber).isEqualTo("1000000500");
+    }
+
+    @Test
+    void doNotSeedExistingSequence() {
+        //given
+        givenSequence(100L);
+        given(sequence.isExists()).willReturn(true);
+        //when
+        accountNumberAllocator.next();
+        //then
+        verify(accountRepository, never()).findMaxAccountNumber();
+    }
+
+    @Test
+    void noDuplicateAccountNumberUnderConcurrency() throws Exception {
+        //given
+        givenSequence(50L);
+        int threads = 16;
+        int perThread = 500;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+        List<Callable<Void>> tasks = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            tasks.add(() -> {
+                start.await();
+                for (int j = 0; j < perThread; j++) {
+                    accountNumbers.add(accountNumberAllocator.next());
+                }
+                return null;
+            });
+        }
+        //when
+        List<Future<Void>> futures = new CopyOnWriteArrayList<>();
+        for (Callable<Void> task : tasks) {
+            futures.add(executorService.submit(task));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        //then
+        assertThat(accountNumbers).hasSize(threads * perThread);
+        assertThat(accountNumbers).allMatch(number -> number.length() == 10);
+    }
+
+    private void givenSequence(long blockSize) {
+        ReflectionTestUtils.setField(accountNumberAllocator, "blockSize", blockSize);
+        given(redissonClient.getAtomicLong(anyString())).willReturn(sequence);
+        given(sequence.addAndGet(anyLong()))
+                .willAnswer(invocation -> redisValue.addAndGet(invocation.getArgument(0)));
+    }
+}
@@ -33,6 +33,10 @@ class AccountServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private AccountUserRepository accountUserRepository;
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+    @Mock
+    private LedgerService ledgerService;
 
     @InjectMocks
     private AccountService accountService;
@@ -43,14 +47,15 @@ class AccountServiceTest {
         AccountUser user = AccountUser.builder().id(12L).name("joo").build();
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder().accountNumber("1000000012").build()));
-        given(accountRepository.save(any(Account.class)))
+        given(accountNumberAllocator.next())
+                .willReturn("1000000013");
+        given(accountRepository.saveAndFlush(any(Account.class)))
                 .willReturn(Account.builder().accountUser(user).accountNumber("1000000013").build());
         //when
         AccountDto accountDto = accountService.createAccount(1L, 1000L);
         //then
-        then(accountRepository).should().save(any(Account.class));
+        then(accountRepository).should().saveAndFlush(any(Account.class));
+        then(ledgerService).should().checkpointIfDue(any(Account.class));
         assertThat(accountDto.getUserId()).isEqualTo(12L);
         assertThat(accountDto.getAccountNumber()).isEqualTo("1000000013");
     }
@@ -61,15 +66,15 @@ class AccountServiceTest {
         AccountUser user = AccountUser.builder().id(15L).name("joo").build();
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty());
-        given(accountRepository.save(any(Account.class)))
+        given(accountNumberAllocator.next())
+                .willReturn("1000000000");
+        given(accountRepository.saveAndFlush(any(Account.class)))
                 .willReturn(Account.builder().accountUser(user).accountNumber("1000000015").build());
         ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
         //when
         AccountDto accountDto = accountService.createAccount(1L, 1000L);
         //then
-        verify(accountRepository, times(1)).save(captor.capture());
+        verify(accountRepository, times(1)).saveAndFlush(captor.capture());
         assertThat(accountDto.getUserId()).isEqualTo(15L);
         assertThat(captor.getValue().getAccountNumber()).isEqualTo("1000000000");
     }
@@ -201,14 +206,14 @@ class AccountServiceTest {
     void successGetAccountsByUserId() {
         //given
         AccountUser user = AccountUser.builder().id(12L).name("joo").build();
-        List<Account> accounts = List.of(
-                Account.builder().accountUser(user).accountNumber("1234567890").balance(1000L).build(),
-                Account.builder().accountUser(user).accountNumber("1111111111").balance(2000L).build(),
-                Account.builder().accountUser(user).accountNumber("2222222222").balance(3000L).build()
+        List<AccountDto> accounts = List.of(
+                AccountDto.builder().userId(12L).accountNumber("1234567890").balance(1000L).build(),
+                AccountDto.builder().userId(12L).accountNumber("1111111111").balance(2000L).build(),
+                AccountDto.builder().userId(12L).accountNumber("2222222222").balance(3000L).build()
         );
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountUser(any()))
+        given(accountRepository.findDtosByAccountUserId(anyLong()))
                 .willReturn(accounts);
         //when
         List<AccountDto> accountDtos = accountService.getAccountsByUserId(1L);
@@ -0,0 +1,121 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountTaskExecutorTest {
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void tasksOfSameAccountRunOneAtATime() throws Exception {
+        //given
+        AccountTaskExecutor executor = new AccountTaskExecutor(workers, 1000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> order = new ArrayList<>();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        //when
+        for (int i = 0; i < 100; i++) {
+            int index = i;
+            futures.add(executor.submit("1000000000", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(index);
+                running.decrementAndGet();
+                return index;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        //then
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(order).isSorted().hasSize(100);
+        assertThat(executor.pendingAccounts()).isZero();
+    }
+
+    @Test
+    @DisplayName("hot 계좌가 포화되어도 다른 계좌의 지연은 늘지 않는다")
+    void hotAccountDoesNotDelayOtherAccounts() throws Exception {
+        //given
+        AccountTaskExecutor executor = new AccountTaskExecutor(workers, 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> hot = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            hot.add(executor.submit("1000000000", () -> {
+                await(release);
+                return 0;
+            }));
+        }
+        //when
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<Integer>> others = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            others.add(executor.submit(String.valueOf(1000000000L + i), () -> 1));
+        }
+        CompletableFuture.allOf(others.toArray(new CompletableFuture[0])).get(1, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        //then
+        assertThat(elapsedMillis).isLessThan(500);
+        assertThat(hot).filteredOn(CompletableFuture::isDone).isEmpty();
+        release.countDown();
+        CompletableFuture.allOf(hot.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void rejectWhenAccountQueueIsFull() {
+        //given
+        AccountTaskExecutor executor = new AccountTaskExecutor(workers, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit("1000000000", () -> await(release));
+        executor.submit("1000000000", () -> await(release));
+        executor.submit("1000000000", () -> await(release));
+        //when
+        CompletableFuture<Boolean> rejected = executor.submit("1000000000", () -> true);
+        //then
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AccountException.class);
+        assertThat(rejected.handle((result, e) -> ((AccountException) e).getErrorCode()).join())
+                .isEqualTo(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        release.countDown();
+    }
+
+    @Test
+    void inlineRunsOnCallerThread() throws Exception {
+        //given
+        AccountTaskExecutor executor = AccountTaskExecutor.inline();
+        Thread caller = Thread.currentThread();
+        //when
+        CompletableFuture<Thread> future = executor.submit("1000000000", Thread::currentThread);
+        //then
+        assertThat(future.get()).isSameAs(caller);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.account.service;
+
+import com.example.account.dto.FailedTransaction;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+    @Mock
+    private TransactionService transactionService;
+
+    private FailedTransactionRecorder recorder;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        recorder.shutdown();
+    }
+
+    @Test
+    @DisplayName("쌓인 실패 거래는 묶어서 저장한다")
+    void savesInBatches() throws Exception {
+        //given
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).given(transactionService).saveFailedTransactions(anyList());
+        recorder = new FailedTransactionRecorder(transactionService, 1000, 100, 50, null);
+        //when
+        for (int i = 0; i < 101; i++) {
+            recorder.record(FailedTransaction.of(TransactionType.USE, "1000000000", 100L + i));
+        }
+        release.countDown();
+        //then
+        verify(transactionService, timeout(2000).atLeast(2)).saveFailedTransactions(anyList());
+        verify(transactionService, atMost(3)).saveFailedTransactions(anyList());
+        assertThat(recorder.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 spill 파일에 남기고 나중에 다시 저장한다")
+    void spillsWhenQueueIsFullAndReplaysLater(@TempDir Path dir) throws Exception {
+        //given
+        Path spillFile = dir.resolve("failed-transactions.log");
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).given(transactionService).saveFailedTransactions(anyList());
+        recorder = new FailedTransactionRecorder(transactionService, 1, 100, 1, spillFile);
+        recorder.record(FailedTransaction.of(TransactionType.USE, "1000000000", 100L));
+        //when
+        for (int i = 0; i < 5; i++) {
+            recorder.record(FailedTransaction.of(TransactionType.CANCEL, "1000000001", 200L));
+        }
+        //then
+        assertThat(Files.readAllLines(spillFile)).hasSizeGreaterThanOrEqualTo(4)
+                .allSatisfy(line -> assertThat(FailedTransaction.fromLine(line).getAmount()).isEqualTo(200L));
+        release.countDown();
+        verify(transactionService, timeout(15000).atLeast(3)).saveFailedTransactions(anyList());
+        assertThat(spillFile).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("저장에 실패한 묶음은 spill 파일에 남겼다가 다시 저장한다")
+    @SuppressWarnings("unchecked")
+    void spillsBatchWhenSaveFails(@TempDir Path dir) {
+        //given
+        Path spillFile = dir.resolve("failed-transactions.log");
+        willThrow(new IllegalStateException("db down"))
+                .willDoNothing()
+                .given(transactionService).saveFailedTransactions(anyList());
+        recorder = new FailedTransactionRecorder(transactionService, 1000, 100, 50, spillFile);
+        //when
+        recorder.record(FailedTransaction.of(TransactionType.USE, "1000000000", 100L));
+        //then
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService, timeout(2000).times(2)).saveFailedTransactions(captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(failures ->
+                assertThat(failures).extracting(FailedTransaction::getAmount).containsExactly(100L));
+        assertThat(spillFile).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("spill 파일이 없으면 넘친 실패 거래는 호출 스레드에서 저장하지 않고 버린다")
+    void dropsOverflowWithoutSpillFile() throws Exception {
+        //given
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).given(transactionService).saveFailedTransactions(anyList());
+        recorder = new FailedTransactionRecorder(transactionService, 1, 100, 1, null);
+        recorder.record(FailedTransaction.of(TransactionType.USE, "1000000000", 100L));
+        verify(transactionService, timeout(2000)).saveFailedTransactions(anyList());
+        //when
+        for (int i = 0; i < 5; i++) {
+            recorder.record(FailedTransaction.of(TransactionType.USE, "1000000000", 200L));
+        }
+        //then
+        assertThat(recorder.dropped()).isGreaterThanOrEqualTo(4);
+        verify(transactionService, atMost(1)).saveFailedTransactions(anyList());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("읽을 수 없는 spill 줄은 quarantine 파일로 옮기고 나머지는 저장한다")
+    @SuppressWarnings("unchecked")
+    void quarantinesMalformedSpilledLines(@TempDir Path dir) throws Exception {
+        //given
+        Path spillFile = dir.resolve("failed-transactions.log");
+        Path quarantine = dir.resolve("failed-transactions.log.quarantine");
+        FailedTransaction commaAccount = FailedTransaction.of(TransactionType.USE, "10000,0000", 100L);
+        Files.write(spillFile, List.of(
+                "USE,10000,0000,100,2024-01-01T00:00",
+                commaAccount.toLine(),
+                "USE,1000000000,abc,2024-01-01T00:00"
+        ));
+        //when
+        recorder = new FailedTransactionRecorder(transactionService, 1000, 100, 50, spillFile);
+        //then
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService, timeout(2000)).saveFailedTransactions(captor.capture());
+        assertThat(captor.getValue()).extracting(FailedTransaction::getAccountNumber)
+                .containsExactly("10000,0000");
+        assertThat(Files.readAllLines(quarantine)).containsExactly(
+                "USE,10000,0000,100,2024-01-01T00:00",
+                "USE,1000000000,abc,2024-01-01T00:00"
+        );
+        assertThat(spillFile).doesNotExist();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HybridAccountLockProviderTest {
+    @Mock
+    private AccountLockProvider localLockProvider;
+    @Mock
+    private AccountLockProvider remoteLockProvider;
+
+    @Test
+    void lockLocalFirstAndUnlockRemoteFirst() {
+        //given
+        HybridAccountLockProvider provider = new HybridAccountLockProvider(localLockProvider, remoteLockProvider);
+        //when
+        provider.lock("1000000000");
+        provider.unlock("1000000000");
+        //then
+        InOrder inOrder = inOrder(localLockProvider, remoteLockProvider);
+        inOrder.verify(localLockProvider).lock(eq("1000000000"), anyLong(), anyLong());
+        inOrder.verify(remoteLockProvider).lock(eq("1000000000"), anyLong(), anyLong());
+        inOrder.verify(remoteLockProvider).unlock("1000000000");
+        inOrder.verify(localLockProvider).unlock("1000000000");
+    }
+
+    @Test
+    void releaseLocalLockWhenRemoteLockFails() {
+        //given
+        HybridAccountLockProvider provider = new HybridAccountLockProvider(localLockProvider, remoteLockProvider);
+        willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+                .given(remoteLockProvider).lock(eq("1000000000"), anyLong(), anyLong());
+        //when
+        assertThatThrownBy(() -> provider.lock("1000000000"))
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        //then
+        verify(localLockProvider).unlock("1000000000");
+    }
+}
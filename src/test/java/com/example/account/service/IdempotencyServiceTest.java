@@ -0,0 +1,227 @@
+package com.example.account.service;
+
+import com.example.account.dto.IdempotencyRecord;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore();
+    private final IdempotencyService idempotencyService =
+            new IdempotencyService(store, new ObjectMapper().registerModule(new JavaTimeModule()));
+    private final ExecutorService clients = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("같은 키로 동시에 들어온 요청은 한 번만 처리된다")
+    void concurrentDuplicatesRunOnce() throws Exception {
+        //given
+        UseBalance.Request request = new UseBalance.Request(1L, "1000000000", 1000L);
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<UseBalance.Response> inFlight = new CompletableFuture<>();
+        CountDownLatch start = new CountDownLatch(1);
+        //when
+        List<Future<CompletableFuture<UseBalance.Response>>> submissions = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            submissions.add(clients.submit(() -> {
+                start.await();
+                return idempotencyService.execute("use", "key-1", request, UseBalance.Response.class, () -> {
+                    executions.incrementAndGet();
+                    return inFlight;
+                });
+            }));
+        }
+        start.countDown();
+        List<CompletableFuture<UseBalance.Response>> futures = new ArrayList<>();
+        for (Future<CompletableFuture<UseBalance.Response>> submission : submissions) {
+            futures.add(submission.get(5, TimeUnit.SECONDS));
+        }
+        inFlight.complete(response("transactionId"));
+        //then
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(futures).filteredOn(future -> !future.isCompletedExceptionally()).hasSize(1);
+        assertThat(futures).filteredOn(CompletableFuture::isCompletedExceptionally)
+                .hasSize(31)
+                .allSatisfy(future -> assertThatThrownBy(future::join)
+                        .hasCauseInstanceOf(AccountException.class)
+                        .extracting(Throwable::getCause)
+                        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DUPLICATE_REQUEST_IN_PROGRESS));
+    }
+
+    @Test
+    @DisplayName("완료된 요청을 재시도하면 처음 응답을 돌려준다")
+    void replayCompletedResponse() {
+        //given
+        UseBalance.Request request = new UseBalance.Request(1L, "1000000000", 1000L);
+        AtomicInteger executions = new AtomicInteger();
+        idempotencyService.execute("use", "key-1", request, UseBalance.Response.class, () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(response("first"));
+        }).join();
+        //when
+        UseBalance.Response replayed = idempotencyService.execute("use", "key-1", request, UseBalance.Response.class, () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(response("second"));
+        }).join();
+        //then
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(replayed.getTransactionId()).isEqualTo("first");
+    }
+
+    @Test
+    @DisplayName("업무 실패는 그대로 재현하고 락 경합은 재시도를 허용한다")
+    void replayBusinessFailureButReleaseLockFailure() {
+        //given
+        UseBalance.Request request = new UseBalance.Request(1L, "1000000000", 1000L);
+        idempotencyService.execute("use", "exceed", request, UseBalance.Response.class,
+                () -> CompletableFuture.failedFuture(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE)));
+        idempotencyService.execute("use", "locked", request, UseBalance.Response.class,
+                () -> CompletableFuture.failedFuture(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK)));
+        //when
+        CompletableFuture<UseBalance.Response> exceed = idempotencyService.execute("use", "exceed", request,
+                UseBalance.Response.class, () -> CompletableFuture.completedFuture(response("second")));
+        CompletableFuture<UseBalance.Response> locked = idempotencyService.execute("use", "locked", request,
+                UseBalance.Response.class, () -> CompletableFuture.completedFuture(response("second")));
+        //then
+        assertThatThrownBy(exceed::join)
+                .isInstanceOf(CompletionException.class)
+                .extracting(Throwable::getCause)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.AMOUNT_EXCEED_BALANCE);
+        assertThat(locked.join().getTransactionId()).isEqualTo("second");
+    }
+
+    @Test
+    @DisplayName("결과 저장에 실패해도 선점을 ttl 동안 유지해 재시도가 다시 실행되지 않는다")
+    void holdClaimWhenSaveFails() {
+        //given
+        UseBalance.Request request = new UseBalance.Request(1L, "1000000000", 1000L);
+        AtomicInteger executions = new AtomicInteger();
+        store.failSave = true;
+        UseBalance.Response first = idempotencyService.execute("use", "key-1", request, UseBalance.Response.class, () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(response("first"));
+        }).join();
+        //when
+        CompletableFuture<UseBalance.Response> replayed = idempotencyService.execute("use", "key-1", request,
+                UseBalance.Response.class, () -> {
+                    executions.incrementAndGet();
+                    return CompletableFuture.completedFuture(response("second"));
+                });
+        //then
+        assertThat(first.getTransactionId()).isEqualTo("first");
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(store.ttls.get("use:key-1")).isEqualTo(Duration.ofHours(24));
+        assertThatThrownBy(replayed::join)
+                .extracting(Throwable::getCause)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DUPLICATE_REQUEST_IN_PROGRESS);
+    }
+
+    @Test
+    void rejectKeyReusedForDifferentRequest() {
+        //given
+        idempotencyService.execute("use", "key-1", new UseBalance.Request(1L, "1000000000", 1000L),
+                UseBalance.Response.class, () -> CompletableFuture.completedFuture(response("first")));
+        //when
+        CompletableFuture<UseBalance.Response> future = idempotencyService.execute("use", "key-1",
+                new UseBalance.Request(1L, "1000000000", 2000L),
+                UseBalance.Response.class, () -> CompletableFuture.completedFuture(response("second")));
+        //then
+        assertThatThrownBy(future::join)
+                .extracting(Throwable::getCause)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @Test
+    void requestWithoutKeyBypassesStore() {
+        //given
+        UseBalance.Request request = new UseBalance.Request(1L, "1000000000", 1000L);
+        //when
+        idempotencyService.execute("use", null, request, UseBalance.Response.class,
+                () -> CompletableFuture.completedFuture(response("first"))).join();
+        //then
+        assertThat(store.records).isEmpty();
+    }
+
+    private static UseBalance.Response response(String transactionId) {
+        return UseBalance.Response.builder()
+                .accountNumber("1000000000")
+                .transactionResult(TransactionResultType.S)
+                .transactionId(transactionId)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+
+    static class InMemoryIdempotencyStore implements IdempotencyStore {
+        private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+        private final Map<String, Duration> ttls = new ConcurrentHashMap<>();
+        private volatile boolean failSave;
+
+        @Override
+        public boolean claim(String key, IdempotencyRecord record, Duration ttl) {
+            if (records.putIfAbsent(key, record) != null) {
+                return false;
+            }
+            ttls.put(key, ttl);
+            return true;
+        }
+
+        @Override
+        public Optional<IdempotencyRecord> find(String key) {
+            return Optional.ofNullable(records.get(key));
+        }
+
+        @Override
+        public CompletableFuture<Void> save(String key, IdempotencyRecord record, Duration ttl) {
+            if (failSave) {
+                return CompletableFuture.failedFuture(new IllegalStateException("redis unavailable"));
+            }
+            records.put(key, record);
+            ttls.put(key, ttl);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> remove(String key) {
+            records.remove(key);
+            ttls.remove(key);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> expire(String key, Duration ttl) {
+            ttls.computeIfPresent(key, (k, old) -> ttl);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
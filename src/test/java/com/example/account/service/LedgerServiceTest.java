@@ -0,0 +1,101 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.BalanceCheckpoint;
+import com.example.account.dto.LedgerBalance;
+import com.example.account.dto.LedgerDelta;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.BalanceCheckpointRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    @Test
+    @DisplayName("checkpoint 는 순번이 주기의 배수일 때만 남긴다")
+    void checkpointEveryInterval() {
+        //given
+        ReflectionTestUtils.setField(ledgerService, "checkpointInterval", 100L);
+        ArgumentCaptor<BalanceCheckpoint> captor = ArgumentCaptor.forClass(BalanceCheckpoint.class);
+        //when
+        ledgerService.checkpointIfDue(account(99L, 5000L));
+        ledgerService.checkpointIfDue(account(200L, 4000L));
+        //then
+        verify(balanceCheckpointRepository).save(captor.capture());
+        assertThat(captor.getValue().getAccountId()).isEqualTo(1L);
+        assertThat(captor.getValue().getSequenceNo()).isEqualTo(200L);
+        assertThat(captor.getValue().getBalance()).isEqualTo(4000L);
+    }
+
+    @Test
+    @DisplayName("잔액은 마지막 checkpoint 에 이후 거래를 더해 다시 계산한다")
+    void recomputeBalanceFromCheckpoint() {
+        //given
+        given(accountRepository.findIdByAccountNumber("1000000012")).willReturn(Optional.of(1L));
+        given(accountRepository.findById(1L)).willReturn(Optional.of(account(1005L, 9000L)));
+        given(balanceCheckpointRepository
+                .findFirstByAccountIdAndSequenceNoLessThanEqualOrderBySequenceNoDesc(1L, 1005L))
+                .willReturn(Optional.of(BalanceCheckpoint.builder()
+                        .accountId(1L).sequenceNo(1000L).balance(10000L).build()));
+        given(transactionRepository.sumLedgerDelta(1L, 1000L, 1005L)).willReturn(new LedgerDelta(5L, -1000L));
+        //when
+        LedgerBalance ledgerBalance = ledgerService.recomputeBalance("1000000012");
+        //then
+        assertThat(ledgerBalance.getRecomputedBalance()).isEqualTo(9000L);
+        assertThat(ledgerBalance.getReplayedEntries()).isEqualTo(5L);
+        assertThat(ledgerBalance.isMatched()).isTrue();
+    }
+
+    @Test
+    void recomputeBalance_CheckpointNotFound() {
+        //given
+        given(accountRepository.findIdByAccountNumber("1000000012")).willReturn(Optional.of(1L));
+        given(accountRepository.findById(1L)).willReturn(Optional.of(account(3L, 9000L)));
+        given(balanceCheckpointRepository
+                .findFirstByAccountIdAndSequenceNoLessThanEqualOrderBySequenceNoDesc(1L, 3L))
+                .willReturn(Optional.empty());
+        //when
+        //then
+        assertThatThrownBy(() -> ledgerService.recomputeBalance("1000000012"))
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.LEDGER_CHECKPOINT_NOT_FOUND);
+        verify(transactionRepository, never()).sumLedgerDelta(any(), any(), any());
+    }
+
+    private static Account account(Long ledgerSequence, Long balance) {
+        return Account.builder()
+                .id(1L)
+                .accountNumber("1000000012")
+                .balance(balance)
+                .ledgerSequence(ledgerSequence)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.account.service;
+
+import com.example.account.dto.LedgerMismatch;
+import com.example.account.dto.LedgerVerificationReport;
+import com.example.account.type.LedgerMismatchType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import(LedgerVerifier.class)
+class LedgerVerifierTest {
+    @Autowired
+    private LedgerVerifier ledgerVerifier;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("순번 누락, 잔액 불일치, checkpoint 없는 계좌를 찾는다")
+    void reportsMismatchesPerAccount() {
+        //given
+        // 100: 정상, 101: 2번 거래 누락, 102: checkpoint 없음
+        account(100L, 700L, 2L);
+        checkpoint(100L, 0L, 1000L);
+        entry(1L, 100L, 1L, "USE", 200L, 800L);
+        entry(2L, 100L, 2L, "USE", 100L, 700L);
+        account(101L, 500L, 2L);
+        checkpoint(101L, 0L, 1000L);
+        entry(3L, 101L, 1L, "USE", 300L, 700L);
+        account(102L, 1000L, 0L);
+        //when
+        LedgerVerificationReport report = ledgerVerifier.verify();
+        //then
+        assertThat(report.getAccounts()).isEqualTo(3);
+        assertThat(report.getEntries()).isEqualTo(3);
+        assertThat(report.getCheckpoints()).isEqualTo(2);
+        assertThat(report.getMismatches())
+                .extracting(LedgerMismatch::getAccountId, LedgerMismatch::getType)
+                .containsExactly(
+                        tuple(101L, LedgerMismatchType.SEQUENCE_GAP),
+                        tuple(101L, LedgerMismatchType.BALANCE),
+                        tuple(102L, LedgerMismatchType.MISSING_CHECKPOINT)
+                );
+    }
+
+    @Test
+    @DisplayName("중간 checkpoint 는 거래를 반영한 잔액과 같아야 한다")
+    void laterCheckpointMustMatchReplayedBalance() {
+        //given
+        account(100L, 1200L, 2L);
+        checkpoint(100L, 0L, 1000L);
+        entry(1L, 100L, 1L, "CANCEL", 300L, 1300L);
+        checkpoint(100L, 1L, 1000L);
+        entry(2L, 100L, 2L, "CANCEL", 200L, 1200L);
+        //when
+        LedgerVerificationReport report = ledgerVerifier.verify();
+        //then
+        assertThat(report.getMismatchCount()).isEqualTo(1);
+        assertThat(report.getMismatches())
+                .extracting(LedgerMismatch::getType, LedgerMismatch::getExpected, LedgerMismatch::getActual)
+                .containsExactly(tuple(LedgerMismatchType.CHECKPOINT, 1300L, 1000L));
+    }
+
+    @Test
+    @DisplayName("구간을 나눠 병렬로 훑어도 결과와 보고서는 계좌 순이다")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void verifiesRangesInParallel(@TempDir Path reportDir) throws IOException {
+        //given
+        ReflectionTestUtils.setField(ledgerVerifier, "rangeSize", 1);
+        ReflectionTestUtils.setField(ledgerVerifier, "reportDir", reportDir.toString());
+        try {
+            account(100L, 700L, 2L);
+            checkpoint(100L, 0L, 1000L);
+            entry(1L, 100L, 1L, "USE", 200L, 800L);
+            entry(2L, 100L, 2L, "USE", 100L, 700L);
+            account(101L, 500L, 2L);
+            checkpoint(101L, 0L, 1000L);
+            entry(3L, 101L, 1L, "USE", 300L, 700L);
+            account(102L, 1000L, 0L);
+            //when
+            LedgerVerificationReport report = ledgerVerifier.verify();
+            //then
+            assertThat(report.getRanges()).isEqualTo(3);
+            assertThat(report.getAccounts()).isEqualTo(3);
+            assertThat(report.getEntries()).isEqualTo(3);
+            assertThat(report.getMismatches())
+                    .extracting(LedgerMismatch::getAccountId, LedgerMismatch::getType)
+                    .containsExactly(
+                            tuple(101L, LedgerMismatchType.SEQUENCE_GAP),
+                            tuple(101L, LedgerMismatchType.BALANCE),
+                            tuple(102L, LedgerMismatchType.MISSING_CHECKPOINT)
+                    );
+            assertThat(Files.readAllLines(Paths.get(report.getReportFile()))).containsExactly(
+                    "account_id,sequence_no,type,expected,actual",
+                    "101,2,SEQUENCE_GAP,1,2",
+                    "101,2,BALANCE,700,500",
+                    "102,0,MISSING_CHECKPOINT,,"
+            );
+            try (var files = Files.list(reportDir)) {
+                assertThat(files).hasSize(1);
+            }
+        } finally {
+            ReflectionTestUtils.setField(ledgerVerifier, "rangeSize", 10_000);
+            ReflectionTestUtils.setField(ledgerVerifier, "reportDir", "");
+            jdbcTemplate.update("delete from transaction where account_id in (100, 101, 102)");
+            jdbcTemplate.update("delete from balance_checkpoint where account_id in (100, 101, 102)");
+            jdbcTemplate.update("delete from account where id in (100, 101, 102)");
+        }
+    }
+
+    private void account(Long id, Long balance, Long ledgerSequence) {
+        jdbcTemplate.update("insert into account (id, account_user_id, account_number, account_status, balance, " +
+                        "registered_at, version, ledger_sequence) values (?, 1, ?, 'IN_USE', ?, now(), 0, ?)",
+                id, String.valueOf(1000000000L + id), balance, ledgerSequence);
+    }
+
+    private void checkpoint(Long accountId, Long sequenceNo, Long balance) {
+        jdbcTemplate.update("insert into balance_checkpoint (account_id, sequence_no, balance) values (?, ?, ?)",
+                accountId, sequenceNo, balance);
+    }
+
+    private void entry(Long id, Long accountId, Long sequenceNo, String type, Long amount, Long snapshot) {
+        jdbcTemplate.update("insert into transaction (id, account_id, sequence_no, transaction_type, " +
+                        "transaction_result_type, amount, balance_snapshot, transaction_id, transacted_at) " +
+                        "values (?, ?, ?, ?, 'S', ?, ?, ?, now())",
+                id, accountId, sequenceNo, type, amount, snapshot, "ledger" + id);
+    }
+}
@@ -1,21 +1,36 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
+import com.example.account.domain.Account;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
+import com.example.account.type.BalanceUpdateMode;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.LockFailMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -25,9 +40,20 @@ class LockAopAspectTest {
     LockAopAspect lockAopAspect;
 
     @Mock
-    private LockService lockService;
+    private AccountLockProvider accountLockProvider;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
+    @Mock
+    private MethodSignature signature;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.getMethod()).willReturn(LockTargets.class.getDeclaredMethod("defaultLock"));
+        given(signature.toShortString()).willReturn("TransactionController.useBalance(..)");
+    }
 
     @Test
     void lockAndUnlock() throws Throwable {
@@ -35,14 +61,29 @@ class LockAopAspectTest {
         ArgumentCaptor<String> lockCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<String> unLockCaptor = ArgumentCaptor.forClass(String.class);
         UseBalance.Request request = new UseBalance.Request(123L, "1234", 1000L);
-        willDoNothing().given(lockService).lock(anyString());
         //when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request);
         //then
-        verify(lockService, times(1)).lock(lockCaptor.capture());
-        verify(lockService, times(1)).unlock(unLockCaptor.capture());
+        verify(accountLockProvider, times(1)).lock(lockCaptor.capture(), eq(1000L), eq(15000L));
+        verify(accountLockProvider, times(1)).unlock(unLockCaptor.capture());
         assertThat(lockCaptor.getValue()).isEqualTo("1234");
         assertThat(unLockCaptor.getValue()).isEqualTo("1234");
+        assertThat(meterRegistry.get("account.lock.hold").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("지표는 엔드포인트마다 한 번만 만들고 다음 호출부터는 재사용한다")
+    void reuseMetersOfSameEndpoint() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1000L);
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request);
+        //then
+        verify(signature, times(1)).toShortString();
+        assertThat(meterRegistry.get("account.lock.hold").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("account.lock.wait").tag("outcome", "acquired").timer().count())
+                .isEqualTo(2);
     }
 
     @Test
@@ -53,12 +94,116 @@ class LockAopAspectTest {
         UseBalance.Request request = new UseBalance.Request(123L, "54321", 1000L);
         given(proceedingJoinPoint.proceed()).willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
         //when
-        assertThatThrownBy(() -> lockAopAspect.aroundMethod(proceedingJoinPoint, request))
+        assertThatThrownBy(() -> lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request))
                 .isInstanceOf(AccountException.class);
         //then
-        verify(lockService, times(1)).lock(lockCaptor.capture());
-        verify(lockService, times(1)).unlock(unLockCaptor.capture());
+        verify(accountLockProvider, times(1)).lock(lockCaptor.capture(), anyLong(), anyLong());
+        verify(accountLockProvider, times(1)).unlock(unLockCaptor.capture());
         assertThat(lockCaptor.getValue()).isEqualTo("54321");
         assertThat(unLockCaptor.getValue()).isEqualTo("54321");
     }
-}
\ No newline at end of file
+
+    @Test
+    void passWaitAndLeaseTime() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1000L);
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("tunedLock"), request);
+        //then
+        verify(accountLockProvider).lock("1234", 300L, 3000L);
+    }
+
+    @Test
+    void lockTimeoutDoesNotProceedOrUnlock() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1000L);
+        willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+                .given(accountLockProvider).lock(anyString(), anyLong(), anyLong());
+        //when
+        assertThatThrownBy(() -> lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request))
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        //then
+        verify(proceedingJoinPoint, never()).proceed();
+        verify(accountLockProvider, never()).unlock(anyString());
+        assertThat(meterRegistry.get("account.lock.failures").tag("reason", "timeout").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void providerErrorIsRejectedByDefault() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1000L);
+        willThrow(new IllegalStateException("redis down"))
+                .given(accountLockProvider).lock(anyString(), anyLong(), anyLong());
+        //when
+        assertThatThrownBy(() -> lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request))
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        //then
+        verify(proceedingJoinPoint, never()).proceed();
+        verify(accountLockProvider, never()).unlock(anyString());
+    }
+
+    @Test
+    void providerErrorProceedsWithoutLockInProceedMode() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1000L);
+        willThrow(new IllegalStateException("redis down"))
+                .given(accountLockProvider).lock(anyString(), anyLong(), anyLong());
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("proceedLock"), request);
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(accountLockProvider, never()).unlock(anyString());
+    }
+
+    @Test
+    void optimisticModeRetriesWithoutLock() throws Throwable {
+        //given
+        ReflectionTestUtils.setField(lockAopAspect, "balanceUpdateMode", BalanceUpdateMode.OPTIMISTIC);
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1000L);
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                .willReturn("ok");
+        //when
+        Object result = lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request);
+        //then
+        assertThat(result).isEqualTo("ok");
+        verify(proceedingJoinPoint, times(2)).proceed();
+        verify(accountLockProvider, never()).lock(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void optimisticModeGivesUpAfterMaxAttempts() throws Throwable {
+        //given
+        ReflectionTestUtils.setField(lockAopAspect, "balanceUpdateMode", BalanceUpdateMode.OPTIMISTIC);
+        UseBalance.Request request = new UseBalance.Request(123L, "1234", 1000L);
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+        //when
+        assertThatThrownBy(() -> lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("defaultLock"), request))
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        //then
+        verify(proceedingJoinPoint, times(3)).proceed();
+    }
+
+    private static AccountLock accountLock(String methodName) throws NoSuchMethodException {
+        return LockTargets.class.getDeclaredMethod(methodName).getAnnotation(AccountLock.class);
+    }
+
+    static class LockTargets {
+        @AccountLock
+        void defaultLock() {
+        }
+
+        @AccountLock(tryLockTime = 300L, leaseTime = 3000L)
+        void tunedLock() {
+        }
+
+        @AccountLock(failMode = LockFailMode.PROCEED)
+        void proceedLock() {
+        }
+    }
+}
@@ -45,4 +45,15 @@ class LockServiceTest {
                 .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCOUNT_TRANSACTION_LOCK);
         //then
     }
-}
\ No newline at end of file
+
+    @Test
+    void redisErrorIsNotSwallowed() throws InterruptedException {
+        //given
+        given(redissonClient.getLock(anyString())).willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any())).willThrow(new IllegalStateException("redis down"));
+        //when
+        assertThatThrownBy(() -> lockService.lock("123", 300L, 3000L))
+                .isInstanceOf(IllegalStateException.class);
+        //then
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.account.service;
+
+import com.example.account.cache.AccountCache;
+import com.example.account.domain.Account;
+import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.type.AccountStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.account.type.TransactionResultType.S;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+
+/**
+ * single-writer 모드에서 계좌 락만 잡는 배치 거래가 writer 스레드와 같은 계좌를 바꾸는 경우.
+ * 배치와 writer 가 각자 커밋하도록 테스트 트랜잭션 없이 실행한다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        TransactionService.class,
+        TransactionBatchService.class,
+        LedgerService.class,
+        TransactionIdGenerator.class,
+        TransactionOutbox.class
+})
+class SingleWriterBatchCollisionTest {
+    @MockBean
+    private AccountCache accountCache;
+    @MockBean
+    private TransactionArchiver transactionArchiver;
+    @MockBean
+    private AccountLockProvider accountLockProvider;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    private SingleWriterTransactionDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("writer 가 읽은 뒤 배치가 같은 계좌를 커밋하면 writer 는 다시 적용해 둘 다 반영한다")
+    void writerReappliesAfterBatchChangedSameAccount() throws Exception {
+        //given
+        Account account = saveAccount("1000000001");
+        dispatcher = new SingleWriterTransactionDispatcher(transactionService, 1, 100, 0, 256);
+        AtomicBoolean batched = new AtomicBoolean();
+        List<UseBalanceBatch.Result> batchResults = new CopyOnWriteArrayList<>();
+        // writer 가 계좌를 바꾼 뒤 커밋하기 전에 다른 스레드에서 배치를 커밋한다.
+        willAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith("account-writer") && batched.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> batchResults.addAll(transactionBatchService.useBalances(
+                        List.of(new UseBalance.Request(1L, account.getAccountNumber(), 300L))))).join();
+            }
+            return null;
+        }).given(accountCache).evictUserAccounts(any());
+        //when
+        UseBalance.Response response = dispatcher.useBalance(
+                new UseBalance.Request(1L, account.getAccountNumber(), 200L)).get(5, TimeUnit.SECONDS);
+        //then
+        assertThat(batchResults).extracting(UseBalanceBatch.Result::getTransactionResult).containsExactly(S);
+        assertThat(response.getTransactionResult()).isEqualTo(S);
+        assertThat(response.getBalanceSnapshot()).isEqualTo(500L);
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualTo(500L);
+    }
+
+    private Account saveAccount(String accountNumber) {
+        return accountRepository.save(Account.builder()
+                .accountUser(accountUserRepository.findById(1L).orElseThrow())
+                .accountNumber(accountNumber)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.dto.BalanceCommand;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.example.account.type.TransactionResultType.F;
+import static com.example.account.type.TransactionResultType.S;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SingleWriterTransactionDispatcherTest {
+    @Mock
+    private TransactionService transactionService;
+
+    private SingleWriterTransactionDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("같은 계좌의 명령은 한 번의 커밋으로 순서대로 적용된다")
+    @SuppressWarnings("unchecked")
+    void commandsOfSameAccountAreGroupCommitted() throws Exception {
+        //given
+        dispatcher = new SingleWriterTransactionDispatcher(transactionService, 2, 100, 200, 256);
+        given(transactionService.applyCommands(anyString(), anyList()))
+                .willAnswer(invocation -> results(invocation.getArgument(1), null));
+        //when
+        CompletableFuture<UseBalance.Response> first = dispatcher.useBalance(new UseBalance.Request(1L, "1000000000", 100L));
+        CompletableFuture<UseBalance.Response> second = dispatcher.useBalance(new UseBalance.Request(1L, "1000000000", 200L));
+        CompletableFuture<UseBalance.Response> third = dispatcher.useBalance(new UseBalance.Request(1L, "1000000000", 300L));
+        //then
+        assertThat(third.get(5, TimeUnit.SECONDS).getAmount()).isEqualTo(300L);
+        assertThat(first.get().getAmount()).isEqualTo(100L);
+        assertThat(second.get().getAmount()).isEqualTo(200L);
+        ArgumentCaptor<List<BalanceCommand>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService, times(1)).applyCommands(eq("1000000000"), captor.capture());
+        assertThat(captor.getValue()).extracting(BalanceCommand::getAmount)
+                .containsExactly(100L, 200L, 300L);
+    }
+
+    @Test
+    @DisplayName("실패한 명령은 errorCode 로 응답이 실패한다")
+    void failedCommandCompletesExceptionally() {
+        //given
+        dispatcher = new SingleWriterTransactionDispatcher(transactionService, 1, 100, 0, 256);
+        given(transactionService.applyCommands(anyString(), anyList()))
+                .willAnswer(invocation -> results(invocation.getArgument(1), ErrorCode.AMOUNT_EXCEED_BALANCE));
+        //when
+        CompletableFuture<UseBalance.Response> future = dispatcher.useBalance(new UseBalance.Request(1L, "1000000000", 100L));
+        //then
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .extracting(Throwable::getCause)
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.AMOUNT_EXCEED_BALANCE);
+    }
+
+    @Test
+    @DisplayName("다른 경로와 버전이 충돌하면 한 번 다시 적용한다")
+    void reapplyOnceOnVersionConflict() throws Exception {
+        //given
+        dispatcher = new SingleWriterTransactionDispatcher(transactionService, 1, 100, 0, 256);
+        given(transactionService.applyCommands(anyString(), anyList()))
+                .willThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+                .willAnswer(invocation -> results(invocation.getArgument(1), null));
+        //when
+        UseBalance.Response response = dispatcher.useBalance(new UseBalance.Request(1L, "1000000000", 100L))
+                .get(5, TimeUnit.SECONDS);
+        //then
+        assertThat(response.getAmount()).isEqualTo(100L);
+        verify(transactionService, times(2)).applyCommands(eq("1000000000"), anyList());
+    }
+
+    @Test
+    @DisplayName("다시 적용해도 충돌하면 ACCOUNT_TRANSACTION_LOCK 으로 실패한다")
+    void failWithLockErrorWhenConflictPersists() {
+        //given
+        dispatcher = new SingleWriterTransactionDispatcher(transactionService, 1, 100, 0, 256);
+        given(transactionService.applyCommands(anyString(), anyList()))
+                .willThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+        //when
+        CompletableFuture<UseBalance.Response> future = dispatcher.useBalance(new UseBalance.Request(1L, "1000000000", 100L));
+        //then
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .extracting(Throwable::getCause)
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        verify(transactionService, times(2)).applyCommands(eq("1000000000"), anyList());
+    }
+
+    @Test
+    @DisplayName("샤드 큐가 가득 차면 바로 거절한다")
+    void rejectWhenShardQueueIsFull() throws Exception {
+        //given
+        dispatcher = new SingleWriterTransactionDispatcher(transactionService, 1, 1, 0, 256);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionService.applyCommands(anyString(), anyList()))
+                .willAnswer(invocation -> {
+                    entered.countDown();
+                    release.await();
+                    return results(invocation.getArgument(1), null);
+                });
+        CompletableFuture<UseBalance.Response> running = dispatcher.useBalance(new UseBalance.Request(1L, "1000000000", 100L));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<UseBalance.Response> queued = dispatcher.useBalance(new UseBalance.Request(1L, "1000000001", 100L));
+        //when
+        CompletableFuture<UseBalance.Response> rejected = dispatcher.useBalance(new UseBalance.Request(1L, "1000000002", 100L));
+        //then
+        assertThatThrownBy(rejected::join)
+                .hasCauseInstanceOf(AccountException.class)
+                .extracting(Throwable::getCause)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        verify(transactionService, timeout(1000).times(2)).applyCommands(anyString(), anyList());
+    }
+
+    private static List<TransactionDto> results(List<BalanceCommand> commands, ErrorCode errorCode) {
+        return commands.stream()
+                .map(command -> {
+                    TransactionDto dto = TransactionDto.builder()
+                            .accountNumber(command.getAccountNumber())
+                            .transactionType(command.getTransactionType())
+                            .transactionResultType(errorCode == null ? S : F)
+                            .transactionId("transactionId")
+                            .amount(command.getAmount())
+                            .transactedAt(LocalDateTime.now())
+                            .build();
+                    dto.setErrorCode(errorCode);
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+class StripedAccountLockProviderTest {
+    @Test
+    void stripeCountIsPowerOfTwo() {
+        assertThat(new StripedAccountLockProvider(1000).stripeCount()).isEqualTo(1024);
+        assertThat(new StripedAccountLockProvider(1024).stripeCount()).isEqualTo(1024);
+    }
+
+    @Test
+    void successGetLock() {
+        //given
+        StripedAccountLockProvider provider = new StripedAccountLockProvider(16);
+        //when
+        //then
+        assertDoesNotThrow(() -> provider.lock("1000000000"));
+        provider.unlock("1000000000");
+    }
+
+    @Test
+    void failGetLockHeldByOtherThread() throws Exception {
+        //given
+        StripedAccountLockProvider provider = new StripedAccountLockProvider(16);
+        CompletableFuture.runAsync(() -> provider.lock("1000000000")).get(1, TimeUnit.SECONDS);
+        //when
+        //then
+        assertThatThrownBy(() -> provider.lock("1000000000"))
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.account.service;
+
+import com.example.account.dto.LedgerBalance;
+import com.example.account.dto.TransactionCursor;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryCondition;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.repository.TransactionArchiveRepository;
+import com.example.account.repository.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({TransactionArchiver.class, LedgerService.class, LedgerVerifier.class})
+class TransactionArchiverTest {
+    @Autowired
+    private TransactionArchiver transactionArchiver;
+    @Autowired
+    private TransactionArchiveRepository transactionArchiveRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private LedgerService ledgerService;
+    @Autowired
+    private LedgerVerifier ledgerVerifier;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("보관 기간이 지난 달의 거래만 옮기고 원장은 그대로 맞는다")
+    void archiveClosedMonthsOnly() {
+        //given
+        ReflectionTestUtils.setField(transactionArchiver, "batchSize", 2);
+        jdbcTemplate.update("insert into account (id, account_user_id, account_number, account_status, balance, " +
+                "registered_at, version, ledger_sequence) values (100, 1, '1000000100', 'IN_USE', 600, now(), 0, 4)");
+        jdbcTemplate.update("insert into balance_checkpoint (account_id, sequence_no, balance) values (100, 0, 1000)");
+        entry(1L, 1L, 100L, 900L, LocalDateTime.of(2024, 1, 5, 0, 0));
+        entry(2L, 2L, 100L, 800L, LocalDateTime.of(2024, 3, 5, 0, 0));
+        entry(3L, 3L, 100L, 700L, LocalDateTime.of(2025, 9, 30, 23, 59));
+        entry(4L, 4L, 100L, 600L, LocalDateTime.of(2025, 10, 1, 0, 0));
+        //when
+        long archived = transactionArchiver.archive(LocalDate.of(2026, 10, 17));
+        //then
+        assertThat(archived).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("select transaction_id from transaction", String.class))
+                .containsExactly("archive4");
+        assertThat(transactionArchiveRepository.count()).isEqualTo(3);
+        TransactionDto archivedDto = transactionArchiveRepository.findDtoByTransactionId("archive1").orElseThrow();
+        assertThat(archivedDto.getAccountNumber()).isEqualTo("1000000100");
+
+        LedgerBalance ledgerBalance = ledgerService.recomputeBalance("1000000100");
+        assertThat(ledgerBalance.getCheckpointSequence()).isEqualTo(3L);
+        assertThat(ledgerBalance.getReplayedEntries()).isEqualTo(1L);
+        assertThat(ledgerBalance.isMatched()).isTrue();
+        assertThat(ledgerVerifier.verify().getMismatchCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("옮긴 거래도 같은 커서로 이어서 조회한다")
+    void historyContinuesIntoArchive() {
+        //given
+        jdbcTemplate.update("insert into account (id, account_user_id, account_number, account_status, balance, " +
+                "registered_at, version, ledger_sequence) values (100, 1, '1000000100', 'IN_USE', 700, now(), 0, 3)");
+        jdbcTemplate.update("insert into balance_checkpoint (account_id, sequence_no, balance) values (100, 0, 1000)");
+        entry(1L, 1L, 100L, 900L, LocalDateTime.of(2024, 1, 5, 0, 0));
+        entry(2L, 2L, 100L, 800L, LocalDateTime.of(2024, 3, 5, 0, 0));
+        entry(3L, 3L, 100L, 700L, LocalDateTime.of(2026, 10, 1, 0, 0));
+        transactionArchiver.archive(LocalDate.of(2026, 10, 17));
+        //when
+        List<TransactionHistoryItem> hot = transactionRepository.findHistory(
+                100L, TransactionHistoryCondition.builder().size(2).build(), 3);
+        List<TransactionHistoryItem> archived = transactionArchiveRepository.findHistory(
+                100L,
+                TransactionHistoryCondition.builder().cursor(TransactionCursor.of(hot.get(0))).size(2).build(),
+                2);
+        List<TransactionHistoryItem> afterCursor = transactionArchiveRepository.findHistory(
+                100L,
+                TransactionHistoryCondition.builder().cursor(TransactionCursor.of(archived.get(0))).size(2).build(),
+                2);
+        //then
+        assertThat(hot).extracting(TransactionHistoryItem::getTransactionId).containsExactly("archive3");
+        assertThat(archived).extracting(TransactionHistoryItem::getTransactionId)
+                .containsExactly("archive2", "archive1");
+        assertThat(afterCursor).extracting(TransactionHistoryItem::getTransactionId).containsExactly("archive1");
+    }
+
+    @Test
+    void nothingToArchive() {
+        //given
+        jdbcTemplate.update("insert into account (id, account_user_id, account_number, account_status, balance, " +
+                "registered_at, version, ledger_sequence) values (100, 1, '1000000100', 'IN_USE', 900, now(), 0, 1)");
+        entry(1L, 1L, 100L, 900L, LocalDateTime.of(2026, 10, 1, 0, 0));
+        //when
+        long archived = transactionArchiver.archive(LocalDate.of(2026, 10, 17));
+        //then
+        assertThat(archived).isZero();
+        assertThat(transactionArchiveRepository.count()).isZero();
+    }
+
+    private void entry(Long id, Long sequenceNo, Long amount, Long snapshot, LocalDateTime transactedAt) {
+        jdbcTemplate.update("insert into transaction (id, account_id, sequence_no, transaction_type, " +
+                        "transaction_result_type, amount, balance_snapshot, transaction_id, transacted_at) " +
+                        "values (?, 100, ?, 'USE', 'S', ?, ?, ?, ?)",
+                id, sequenceNo, amount, snapshot, "archive" + id, Timestamp.valueOf(transactedAt));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static com.example.account.type.TransactionResultType.F;
+import static com.example.account.type.TransactionResultType.S;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private AccountLockProvider accountLockProvider;
+
+    @InjectMocks
+    private TransactionBatchService transactionBatchService;
+
+    @Test
+    void lockOncePerAccountAndKeepRequestOrder() {
+        //given
+        List<UseBalance.Request> requests = List.of(
+                new UseBalance.Request(1L, "1000000000", 100L),
+                new UseBalance.Request(2L, "1000000001", 200L),
+                new UseBalance.Request(1L, "1000000000", 300L)
+        );
+        given(transactionService.useBalances(eq("1000000000"), anyList()))
+                .willReturn(List.of(
+                        TransactionDto.builder().accountNumber("1000000000").amount(100L).transactionResultType(S).build(),
+                        TransactionDto.builder().accountNumber("1000000000").amount(300L).transactionResultType(S).build()
+                ));
+        given(transactionService.useBalances(eq("1000000001"), anyList()))
+                .willReturn(List.of(
+                        TransactionDto.builder().accountNumber("1000000001").amount(200L).transactionResultType(S).build()
+                ));
+        //when
+        List<UseBalanceBatch.Result> results = transactionBatchService.useBalances(requests);
+        //then
+        verify(accountLockProvider, times(1)).lock("1000000000");
+        verify(accountLockProvider, times(1)).unlock("1000000000");
+        verify(accountLockProvider, times(1)).lock("1000000001");
+        verify(accountLockProvider, times(1)).unlock("1000000001");
+        assertThat(results).extracting(UseBalanceBatch.Result::getAmount)
+                .containsExactly(100L, 200L, 300L);
+    }
+
+    @Test
+    @DisplayName("락 획득 실패 - 해당 계좌의 요청만 실패")
+    void lockFailureFailsOnlyThatAccount() {
+        //given
+        List<UseBalance.Request> requests = List.of(
+                new UseBalance.Request(1L, "1000000000", 100L),
+                new UseBalance.Request(2L, "1000000001", 200L)
+        );
+        willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+                .given(accountLockProvider).lock("1000000000");
+        given(transactionService.useBalances(eq("1000000001"), anyList()))
+                .willReturn(List.of(
+                        TransactionDto.builder().accountNumber("1000000001").amount(200L).transactionResultType(S).build()
+                ));
+        //when
+        List<UseBalanceBatch.Result> results = transactionBatchService.useBalances(requests);
+        //then
+        verify(transactionService, never()).useBalances(eq("1000000000"), anyList());
+        verify(accountLockProvider, never()).unlock("1000000000");
+        assertThat(results.get(0).getTransactionResult()).isEqualTo(F);
+        assertThat(results.get(0).getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        assertThat(results.get(1).getTransactionResult()).isEqualTo(S);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.account.service;
+
+import com.example.account.type.ExportFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 메모리에 다 올라가지 않는 내역을 흘려 쓰는지 보기 위해 H2 를 파일 DB 로 띄운다.
+ * 100만 건 테스트는 ./gradlew memoryTest 에서 작은 힙(-Xmx)으로 실행된다.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(TransactionExportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionExportServiceTest {
+    private static final int CHUNK_SIZE = 10_000;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("export-test").toAbsolutePath().toString();
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + directory + "/account");
+    }
+
+    @Test
+    void exportNdjsonInTransactedOrder() throws IOException {
+        //given
+        seed(100L, 3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        //when
+        long count = transactionExportService.export(100L, ExportFormat.NDJSON, out);
+        //then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("{\"transactionType\":\"USE\",\"transactionResult\":\"S\"," +
+                "\"transactionId\":\"export100-0\",\"amount\":1,\"balanceSnapshot\":0,");
+        assertThat(lines[2]).contains("\"transactionId\":\"export100-2\"").doesNotContain("\"id\"");
+    }
+
+    @Test
+    void exportCsvWithHeader() throws IOException {
+        //given
+        seed(101L, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        //when
+        long count = transactionExportService.export(101L, ExportFormat.CSV, out);
+        //then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo(
+                "transactionType,transactionResult,transactionId,amount,balanceSnapshot,transactedAt");
+        assertThat(lines[1]).startsWith("USE,S,export101-0,1,0,");
+    }
+
+    @Test
+    @Tag("memory")
+    @DisplayName("100만 건도 힙에 모으지 않고 내보낸다")
+    void exportMillionRowsWithConstantMemory() throws IOException {
+        //given
+        int rows = 1_000_000;
+        seed(102L, rows);
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        //when
+        long count = transactionExportService.export(102L, ExportFormat.NDJSON, out);
+        //then
+        assertThat(count).isEqualTo(rows);
+        assertThat(out.lines).isEqualTo(rows);
+    }
+
+    private void seed(Long accountId, int rows) {
+        jdbcTemplate.update("insert into account (id, account_user_id, account_number, account_status, balance, " +
+                "registered_at, version) values (?, 1, ?, 'IN_USE', 0, now(), 0)", accountId, "90000" + accountId);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{
+                    accountId * 10_000_000L + i, accountId, "export" + accountId + "-" + i,
+                    Timestamp.valueOf(base.plusSeconds(i))
+            });
+            if (batch.size() == CHUNK_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate("insert into transaction (id, account_id, transaction_type, " +
+                        "transaction_result_type, amount, balance_snapshot, transaction_id, transacted_at) " +
+                        "values (?, ?, 'USE', 'S', 1, 0, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionIdGeneratorTest {
+
+    @Test
+    void idIsThirtyTwoHexCharsWithCreationTime() {
+        //given
+        long now = 1_700_000_000_123L;
+        TransactionIdGenerator generator = new TransactionIdGenerator(5, () -> now);
+        //when
+        String id = generator.next();
+        //then
+        assertThat(id).hasSize(32).matches("[0-9a-f]{32}");
+        assertThat(id.charAt(12)).isEqualTo('7');
+        assertThat(TransactionIdGenerator.createdAt(id)).contains(Instant.ofEpochMilli(now));
+    }
+
+    @Test
+    @DisplayName("시계가 뒤로 가도 아이디는 증가한다")
+    void monotonicWhenClockGoesBack() {
+        //given
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        TransactionIdGenerator generator = new TransactionIdGenerator(5, clock::get);
+        //when
+        String first = generator.next();
+        clock.addAndGet(-1000);
+        String second = generator.next();
+        String third = generator.next();
+        //then
+        assertThat(second).isGreaterThan(first);
+        assertThat(third).isGreaterThan(second);
+    }
+
+    @Test
+    @DisplayName("여러 스레드에서 발급해도 겹치지 않고 스레드마다 증가한다")
+    void uniqueAndMonotonicAcrossThreads() throws Exception {
+        //given
+        TransactionIdGenerator generator = new TransactionIdGenerator(5);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        List<Future<Boolean>> results = new ArrayList<>();
+        //when
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                String previous = "";
+                boolean increasing = true;
+                for (int i = 0; i < perThread; i++) {
+                    String id = generator.next();
+                    increasing &= id.compareTo(previous) > 0;
+                    ids.add(id);
+                    previous = id;
+                }
+                return increasing;
+            }));
+        }
+        start.countDown();
+        //then
+        for (Future<Boolean> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isTrue();
+        }
+        executor.shutdown();
+        assertThat(ids).hasSize(threads * perThread);
+    }
+
+    @Test
+    void legacyIdHasNoCreationTime() {
+        //given
+        String legacy = UUID.randomUUID().toString().replace("-", "");
+        //when
+        //then
+        assertThat(TransactionIdGenerator.createdAt(legacy)).isEmpty();
+        assertThat(TransactionIdGenerator.createdAt("transactionId")).isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionEvent;
+import com.example.account.type.TransactionResultType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.account.type.TransactionResultType.F;
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.USE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(TransactionOutbox.class)
+class TransactionOutboxRelayTest {
+    @Autowired
+    private TransactionOutbox transactionOutbox;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("batch 단위로 id 순서대로 발행하고 발행한 이벤트를 지운다")
+    void relayInBatchesInOrder() throws IOException {
+        //given
+        Path file = tempDir.resolve("events.ndjson");
+        transactionOutbox.append(List.of(
+                transaction("1000000001", 1L, S),
+                transaction("1000000002", 1L, S),
+                transaction("1000000001", null, F),
+                transaction("1000000001", 2L, S),
+                transaction("1000000002", 2L, S)
+        ));
+        //when
+        relay(new FileTransactionEventSink(file, objectMapper)).relay();
+        //then
+        List<TransactionEvent> published = read(file);
+        assertThat(published).extracting(TransactionEvent::getEventId).isSorted().hasSize(5);
+        assertThat(published).filteredOn(event -> event.getAccountNumber().equals("1000000001"))
+                .extracting(TransactionEvent::getSequenceNo)
+                .containsExactly(1L, null, 2L);
+        assertThat(transactionOutbox.poll(10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("발행이 실패하면 지우지 않고 다음 차례에 다시 보낸다")
+    void failedPublishIsRetried() throws IOException {
+        //given
+        Path file = tempDir.resolve("events.ndjson");
+        transactionOutbox.append(List.of(
+                transaction("1000000001", 1L, S),
+                transaction("1000000001", 2L, S)
+        ));
+        List<List<TransactionEvent>> attempts = new ArrayList<>();
+        TransactionOutboxRelay failing = relay(events -> {
+            attempts.add(events);
+            throw new IllegalStateException("sink down");
+        });
+        //when
+        failing.relay();
+        relay(new FileTransactionEventSink(file, objectMapper)).relay();
+        //then
+        assertThat(attempts).hasSize(1);
+        assertThat(read(file)).extracting(TransactionEvent::getEventId)
+                .containsExactlyElementsOf(attempts.get(0).stream()
+                        .map(TransactionEvent::getEventId)
+                        .collect(Collectors.toList()));
+        assertThat(transactionOutbox.poll(10)).isEmpty();
+    }
+
+    private TransactionOutboxRelay relay(TransactionEventSink sink) {
+        return new TransactionOutboxRelay(transactionOutbox, sink, null, 2, new SimpleMeterRegistry());
+    }
+
+    private List<TransactionEvent> read(Path file) throws IOException {
+        List<TransactionEvent> events = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            events.add(objectMapper.readValue(line, TransactionEvent.class));
+        }
+        return events;
+    }
+
+    private static Transaction transaction(String accountNumber, Long sequenceNo, TransactionResultType resultType) {
+        return Transaction.builder()
+                .account(Account.builder().accountNumber(accountNumber).build())
+                .transactionType(USE)
+                .transactionResultType(resultType)
+                .amount(100L)
+                .balanceSnapshot(1000L)
+                .transactionId(accountNumber + "-" + sequenceNo + "-" + resultType)
+                .transactedAt(LocalDateTime.now())
+                .sequenceNo(sequenceNo)
+                .build();
+    }
+}
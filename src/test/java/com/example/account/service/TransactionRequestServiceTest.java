@@ -0,0 +1,118 @@
+package com.example.account.service;
+
+import com.example.account.dto.FailedTransaction;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.account.type.TransactionResultType.S;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionRequestServiceTest {
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @InjectMocks
+    private TransactionRequestService transactionRequestService;
+
+    @Test
+    void successUseBalance() {
+        //given
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionResultType(S)
+                        .transactionId("transactionId")
+                        .amount(1000L)
+                        .transactedAt(LocalDateTime.now())
+                        .build());
+        //when
+        UseBalance.Response response = transactionRequestService.useBalance(
+                new UseBalance.Request(1L, "1000000000", 1000L));
+        //then
+        assertThat(response.getTransactionId()).isEqualTo("transactionId");
+        verify(failedTransactionRecorder, never()).record(any());
+    }
+
+    @Test
+    void saveFailedUseTransaction() {
+        //given
+        ArgumentCaptor<FailedTransaction> captor = ArgumentCaptor.forClass(FailedTransaction.class);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        //when
+        assertThatThrownBy(() -> transactionRequestService.useBalance(
+                new UseBalance.Request(1L, "1000000000", 1000L)))
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.AMOUNT_EXCEED_BALANCE);
+        //then
+        verify(failedTransactionRecorder).record(captor.capture());
+        assertThat(captor.getValue().getTransactionType()).isEqualTo(TransactionType.USE);
+        assertThat(captor.getValue().getAccountNumber()).isEqualTo("1000000000");
+        verify(transactionService, never()).saveFailedTransactions(anyList());
+    }
+
+    @Test
+    @DisplayName("실패 거래 저장이 끝나지 않아도 요청은 기다리지 않고 끝난다")
+    @SuppressWarnings("unchecked")
+    void failureSaveDoesNotBlockRequest() throws Exception {
+        //given
+        FailedTransactionRecorder recorder = new FailedTransactionRecorder(transactionService, 1000, 100, 50, null);
+        TransactionRequestService service = new TransactionRequestService(transactionService, recorder);
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        willAnswer(invocation -> {
+            release.await();
+            return null;
+        }).given(transactionService).saveFailedTransactions(anyList());
+        try {
+            //when
+            CompletableFuture<Void> requests = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 20; i++) {
+                    assertThatThrownBy(() -> service.useBalance(new UseBalance.Request(1L, "1000000000", 1000L)))
+                            .isInstanceOf(AccountException.class);
+                }
+            });
+            //then
+            // 저장이 막혀 있는 동안에도 모든 요청이 끝난다. (동기로 저장했다면 첫 요청에서 멈춘다)
+            requests.get(5, TimeUnit.SECONDS);
+            release.countDown();
+            recorder.shutdown();
+            ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+            verify(transactionService, atLeastOnce()).saveFailedTransactions(captor.capture());
+            assertThat(captor.getAllValues().stream().mapToInt(List::size).sum()).isEqualTo(20);
+        } finally {
+            release.countDown();
+            recorder.shutdown();
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.account.service;
 
+import com.example.account.cache.AccountCache;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.BalanceCommand;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.FailedTransaction;
+import com.example.account.dto.TransactionCursor;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryCondition;
+import com.example.account.dto.TransactionHistoryItem;
+import com.example.account.dto.TransactionHistoryResponse;
+import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.TransactionArchiveRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
+import com.example.account.type.BalanceUpdateMode;
 import com.example.account.type.ErrorCode;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
@@ -18,9 +29,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 
 import static com.example.account.type.AccountStatus.UNREGISTERED;
@@ -28,8 +44,10 @@ import static com.example.account.type.TransactionResultType.S;
 import static com.example.account.type.TransactionType.USE;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -38,9 +56,21 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
     @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+    @Mock
     private AccountRepository accountRepository;
     @Mock
     private AccountUserRepository accountUserRepository;
+    @Mock
+    private AccountCache accountCache;
+    @Mock
+    private LedgerService ledgerService;
+    @Spy
+    private TransactionIdGenerator transactionIdGenerator = new TransactionIdGenerator(1);
+    @Mock
+    private TransactionArchiver transactionArchiver;
+    @Mock
+    private TransactionOutbox transactionOutbox;
 
     @InjectMocks
     private TransactionService transactionService;
@@ -52,7 +82,9 @@ class TransactionServiceTest {
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
         Account account = Account.builder().accountUser(user).accountStatus(AccountStatus.IN_USE).accountNumber("1000000012").balance(10000L).build();
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(account));
         given(transactionRepository.save(any())).willReturn(Transaction.builder()
                         .account(account)
@@ -75,6 +107,7 @@ class TransactionServiceTest {
         assertThat(transactionDto.getTransactionType()).isEqualTo(USE);
         assertThat(transactionDto.getBalanceSnapshot()).isEqualTo(9000L);
         assertThat(transactionDto.getAmount()).isEqualTo(1000L);
+        verify(transactionOutbox, times(1)).append(any());
     }
 
     @Test
@@ -98,7 +131,7 @@ class TransactionServiceTest {
         AccountUser user = AccountUser.builder().id(12L).name("joo").build();
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
         //when
         assertThatThrownBy(() -> transactionService.useBalance(1L, "1234567890", 1000L))
@@ -116,7 +149,9 @@ class TransactionServiceTest {
         AccountUser user2 = AccountUser.builder().id(13L).name("ju").build();
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user1));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(Account.builder().accountUser(user2).balance(0L).accountNumber("1000000012").build()));
         //when
         assertThatThrownBy(() -> transactionService.useBalance(1L, "1234567890", 1000L))
@@ -132,7 +167,9 @@ class TransactionServiceTest {
         AccountUser user = AccountUser.builder().id(12L).name("joo").build();
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(Account.builder().accountUser(user).accountStatus(UNREGISTERED).balance(0L).accountNumber("1000000012").build()));
         //when
         assertThatThrownBy(() -> transactionService.useBalance(1L, "1234567890", 1000L))
@@ -149,7 +186,9 @@ class TransactionServiceTest {
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
         Account account = Account.builder().accountUser(user).accountStatus(AccountStatus.IN_USE).accountNumber("1000000012").balance(100L).build();
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(account));
 
         //when
@@ -160,32 +199,192 @@ class TransactionServiceTest {
         verify(transactionRepository, times(0)).save(any());
     }
 
+    @Test
+    @DisplayName("optimistic 모드 - 조건부 UPDATE 로 차감")
+    void successUseBalance_optimistic() {
+        //given
+        ReflectionTestUtils.setField(transactionService, "balanceUpdateMode", BalanceUpdateMode.OPTIMISTIC);
+        AccountUser user = AccountUser.builder().id(12L).name("joo").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        Account account = Account.builder().id(1L).accountUser(user).accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1000000012").balance(10000L).build();
+        Account updated = Account.builder().id(1L).accountUser(user).accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1000000012").balance(9800L).build();
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
+                .willReturn(Optional.of(account), Optional.of(updated));
+        given(accountRepository.debit(eq(1L), eq(200L), eq(AccountStatus.IN_USE), any()))
+                .willReturn(1);
+        given(transactionRepository.save(any())).willAnswer(invocation -> invocation.getArgument(0));
+        //when
+        TransactionDto transactionDto = transactionService.useBalance(1L, "1000000012", 200L);
+        //then
+        assertThat(transactionDto.getBalanceSnapshot()).isEqualTo(9800L);
+        assertThat(account.getBalance()).isEqualTo(10000L);
+        verify(accountCache).evictAccount(1L);
+    }
+
+    @Test
+    @DisplayName("optimistic 모드 - 최신 잔액 부족")
+    void useBalance_optimistic_exceedAmount() {
+        //given
+        ReflectionTestUtils.setField(transactionService, "balanceUpdateMode", BalanceUpdateMode.OPTIMISTIC);
+        AccountUser user = AccountUser.builder().id(12L).name("joo").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        Account account = Account.builder().id(1L).accountUser(user).accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1000000012").balance(10000L).build();
+        Account updated = Account.builder().id(1L).accountUser(user).accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1000000012").balance(100L).build();
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
+                .willReturn(Optional.of(account), Optional.of(updated));
+        given(accountRepository.debit(anyLong(), anyLong(), any(), any()))
+                .willReturn(0);
+        //when
+        assertThatThrownBy(() -> transactionService.useBalance(1L, "1000000012", 200L))
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.AMOUNT_EXCEED_BALANCE);
+        //then
+    }
+
+    @Test
+    @DisplayName("optimistic 모드 - 갱신 경합은 재시도 대상 예외")
+    void useBalance_optimistic_conflict() {
+        //given
+        ReflectionTestUtils.setField(transactionService, "balanceUpdateMode", BalanceUpdateMode.OPTIMISTIC);
+        AccountUser user = AccountUser.builder().id(12L).name("joo").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        Account account = Account.builder().id(1L).accountUser(user).accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1000000012").balance(10000L).build();
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
+                .willReturn(Optional.of(account));
+        given(accountRepository.debit(anyLong(), anyLong(), any(), any()))
+                .willReturn(0);
+        //when
+        assertThatThrownBy(() -> transactionService.useBalance(1L, "1000000012", 200L))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        //then
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void successUseBalances() {
+        //given
+        AccountUser user = AccountUser.builder().id(12L).name("joo").build();
+        Account account = Account.builder().accountUser(user).accountStatus(AccountStatus.IN_USE).accountNumber("1000000012").balance(1000L).build();
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
+                .willReturn(Optional.of(account));
+        given(accountUserRepository.findById(12L))
+                .willReturn(Optional.of(user));
+        given(accountUserRepository.findById(99L))
+                .willReturn(Optional.empty());
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        //when
+        List<TransactionDto> transactionDtos = transactionService.useBalances("1000000012", List.of(
+                new UseBalance.Request(12L, "1000000012", 300L),
+                new UseBalance.Request(12L, "1000000012", 5000L),
+                new UseBalance.Request(99L, "1000000012", 100L)
+        ));
+        //then
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(3);
+        assertThat(account.getBalance()).isEqualTo(700L);
+        assertThat(transactionDtos.get(0).getTransactionResultType()).isEqualTo(S);
+        assertThat(transactionDtos.get(0).getBalanceSnapshot()).isEqualTo(700L);
+        assertThat(transactionDtos.get(1).getTransactionResultType()).isEqualTo(TransactionResultType.F);
+        assertThat(transactionDtos.get(1).getErrorCode()).isEqualTo(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        assertThat(transactionDtos.get(2).getErrorCode()).isEqualTo(ErrorCode.USER_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("사용과 취소 명령을 순서대로 적용하고 한 번에 저장한다")
+    @SuppressWarnings("unchecked")
+    void applyUseAndCancelCommands() {
+        //given
+        AccountUser user = AccountUser.builder().id(12L).name("joo").build();
+        Account account = Account.builder().id(1L).accountUser(user).accountStatus(AccountStatus.IN_USE).accountNumber("1000000012").balance(1000L).build();
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
+                .willReturn(Optional.of(account));
+        given(accountUserRepository.findById(12L))
+                .willReturn(Optional.of(user));
+        given(transactionRepository.findByTransactionId("usedBefore"))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(USE)
+                        .transactionResultType(S)
+                        .transactionId("usedBefore")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(200L)
+                        .balanceSnapshot(1000L)
+                        .build()));
+        given(transactionRepository.findByTransactionId("unknown"))
+                .willReturn(Optional.empty());
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        //when
+        List<TransactionDto> transactionDtos = transactionService.applyCommands("1000000012", List.of(
+                BalanceCommand.use(new UseBalance.Request(12L, "1000000012", 300L)),
+                BalanceCommand.cancel(new CancelBalance.Request("usedBefore", "1000000012", 200L)),
+                BalanceCommand.cancel(new CancelBalance.Request("unknown", "1000000012", 100L))
+        ));
+        //then
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(3);
+        assertThat(account.getBalance()).isEqualTo(900L);
+        assertThat(account.getLedgerSequence()).isEqualTo(2L);
+        assertThat(captor.getValue()).extracting(Transaction::getSequenceNo)
+                .containsExactly(1L, 2L, null);
+        assertThat(transactionDtos.get(0).getBalanceSnapshot()).isEqualTo(700L);
+        assertThat(transactionDtos.get(1).getTransactionType()).isEqualTo(TransactionType.CANCEL);
+        assertThat(transactionDtos.get(1).getBalanceSnapshot()).isEqualTo(900L);
+        assertThat(transactionDtos.get(2).getTransactionResultType()).isEqualTo(TransactionResultType.F);
+        assertThat(transactionDtos.get(2).getErrorCode()).isEqualTo(ErrorCode.TRANSACTION_NOT_FOUND);
+        verify(transactionOutbox, times(1)).append(captor.getValue());
+    }
+
     @Test
     @DisplayName("실패 트랜잭션 저장")
-    void savedFailedUseTransaction() {
+    @SuppressWarnings("unchecked")
+    void saveFailedTransactions() {
         //given
         AccountUser user = AccountUser.builder().id(12L).name("joo").build();
         Account account = Account.builder().accountUser(user).accountStatus(AccountStatus.IN_USE).accountNumber("1000000012").balance(10000L).build();
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber("1000000012"))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findIdByAccountNumber("1000000099"))
+                .willReturn(Optional.empty());
+        given(accountRepository.findById(1L))
                 .willReturn(Optional.of(account));
-        given(transactionRepository.save(any())).willReturn(Transaction.builder()
-                .account(account)
-                .transactionType(USE)
-                .transactionResultType(TransactionResultType.F)
-                .transactionId("transactionId")
-                .transactedAt(LocalDateTime.now())
-                .amount(1000L)
-                .balanceSnapshot(9000L)
-                .build()
-        );
-        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        LocalDateTime failedAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
         //when
-        transactionService.saveFailedUseTransaction("1000000000", 200L);
+        transactionService.saveFailedTransactions(List.of(
+                new FailedTransaction(USE, "1000000012", 200L, failedAt),
+                new FailedTransaction(TransactionType.CANCEL, "1000000012", 300L, failedAt),
+                new FailedTransaction(USE, "1000000099", 400L, failedAt)
+        ));
         //then
-        verify(transactionRepository, times(1)).save(captor.capture());
-        assertThat(captor.getValue().getAmount()).isEqualTo(200L);
-        assertThat(captor.getValue().getBalanceSnapshot()).isEqualTo(10000L);
-        assertThat(captor.getValue().getTransactionResultType()).isEqualTo(TransactionResultType.F);
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        verify(accountRepository, times(1)).findById(1L);
+        assertThat(captor.getValue())
+                .extracting(Transaction::getAmount, Transaction::getTransactionResultType, Transaction::getTransactedAt)
+                .containsExactly(
+                        tuple(200L, TransactionResultType.F, failedAt),
+                        tuple(300L, TransactionResultType.F, failedAt)
+                );
+        assertThat(captor.getValue()).extracting(Transaction::getBalanceSnapshot).containsOnly(10000L);
+        assertThat(captor.getValue()).extracting(Transaction::getSequenceNo).containsOnlyNulls();
+        verify(transactionOutbox, times(1)).append(captor.getValue());
     }
 
     @Test
@@ -209,7 +408,9 @@ class TransactionServiceTest {
                 .build();
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(account));
         given(transactionRepository.save(any())).willReturn(Transaction.builder()
                 .account(account)
@@ -244,7 +445,7 @@ class TransactionServiceTest {
         Transaction transaction = Transaction.builder().build();
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
         //when
         assertThatThrownBy(() -> transactionService.cancelBalance("transactionId", "1234567890", 1000L))
@@ -298,7 +499,9 @@ class TransactionServiceTest {
                 .build();
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(accountNotUse));
         //when
         assertThatThrownBy(() -> transactionService.cancelBalance("transactionId", "1234567890", 200L))
@@ -331,7 +534,9 @@ class TransactionServiceTest {
                 .build();
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(account));
         //when
         assertThatThrownBy(() -> transactionService.cancelBalance("transactionId", "1234567890", 200L))
@@ -364,7 +569,9 @@ class TransactionServiceTest {
                 .build();
         given(transactionRepository.findByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(account));
         //when
         assertThatThrownBy(() -> transactionService.cancelBalance("transactionId", "1234567890", 200L))
@@ -394,8 +601,8 @@ class TransactionServiceTest {
                 .amount(200L)
                 .balanceSnapshot(9000L)
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.fromEntity(transaction)));
         //when
         TransactionDto transactionDto = transactionService.queryTransaction("transactionId");
         //then
@@ -409,7 +616,7 @@ class TransactionServiceTest {
     @DisplayName("해당 거래 없음 - 잔액 사용 취소 실패")
     void queryTransaction_TransactionNotFound() {
         //given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findDtoByTransactionId(anyString()))
                 .willReturn(Optional.empty());
         //when
         assertThatThrownBy(() -> transactionService.queryTransaction("transactionId"))
@@ -418,4 +625,150 @@ class TransactionServiceTest {
         //then
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("hot 테이블에 없는 거래는 archive 에서 찾는다")
+    void queryTransactionFromArchive() {
+        //given
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.findDtoByTransactionId("transactionId"))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionType(USE)
+                        .transactionResultType(S)
+                        .transactionId("transactionId")
+                        .amount(200L)
+                        .transactedAt(LocalDateTime.now().minusYears(2))
+                        .build()));
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction("transactionId");
+        //then
+        assertThat(transactionDto.getAccountNumber()).isEqualTo("1000000012");
+        assertThat(transactionDto.getAmount()).isEqualTo(200L);
+    }
+
+    @Test
+    @DisplayName("아이디의 생성 시각이 보관 기간을 지났으면 archive 부터 찾는다")
+    void queryOldTransactionFromArchiveFirst() {
+        //given
+        long createdAt = LocalDateTime.now().minusYears(2).atZone(ZoneId.systemDefault())
+                .toInstant().toEpochMilli();
+        String transactionId = new TransactionIdGenerator(1, () -> createdAt).next();
+        given(transactionArchiver.mayBeArchived(any())).willReturn(true);
+        given(transactionArchiveRepository.findDtoByTransactionId(transactionId))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionId(transactionId)
+                        .build()));
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction(transactionId);
+        //then
+        assertThat(transactionDto.getTransactionId()).isEqualTo(transactionId);
+        verify(transactionRepository, never()).findDtoByTransactionId(anyString());
+    }
+
+    @Test
+    @DisplayName("archive 로 옮겨진 거래 - 잔액 사용 취소 실패")
+    void cancelTransaction_Archived() {
+        //given
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionArchiveRepository.existsByTransactionId("transactionId"))
+                .willReturn(true);
+        //when
+        assertThatThrownBy(() -> transactionService.cancelBalance("transactionId", "1234567890", 1000L))
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+        //then
+        verify(accountRepository, never()).findIdByAccountNumber(anyString());
+    }
+
+    @Test
+    void successGetTransactionHistory() {
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(transactionRepository.findHistory(anyLong(), any(), anyInt()))
+                .willReturn(List.of(
+                        TransactionHistoryItem.builder().id(3L).transactedAt(now).amount(300L).build(),
+                        TransactionHistoryItem.builder().id(2L).transactedAt(now.minusSeconds(1)).amount(200L).build(),
+                        TransactionHistoryItem.builder().id(1L).transactedAt(now.minusSeconds(2)).amount(100L).build()
+                ));
+        //when
+        TransactionHistoryResponse response = transactionService.getTransactionHistory(
+                "1000000012",
+                TransactionHistoryCondition.builder().size(2).build()
+        );
+        //then
+        verify(transactionRepository).findHistory(anyLong(), any(), eq(3));
+        assertThat(response.getTransactions()).hasSize(2);
+        TransactionCursor cursor = TransactionCursor.decode(response.getNextCursor());
+        assertThat(cursor.getId()).isEqualTo(2L);
+        assertThat(cursor.getTransactedAt()).isEqualTo(now.minusSeconds(1));
+    }
+
+    @Test
+    @DisplayName("hot 테이블이 모자라면 archive 에서 이어서 채운다")
+    void historyContinuesIntoArchive() {
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(transactionRepository.findHistory(anyLong(), any(), anyInt()))
+                .willReturn(List.of(
+                        TransactionHistoryItem.builder().id(3L).transactedAt(now).amount(300L).build()
+                ));
+        given(transactionArchiveRepository.findHistory(anyLong(), any(), anyInt()))
+                .willReturn(List.of(
+                        TransactionHistoryItem.builder().id(2L).transactedAt(now.minusYears(2)).amount(200L).build(),
+                        TransactionHistoryItem.builder().id(1L).transactedAt(now.minusYears(3)).amount(100L).build()
+                ));
+        ArgumentCaptor<TransactionHistoryCondition> captor = ArgumentCaptor.forClass(TransactionHistoryCondition.class);
+        //when
+        TransactionHistoryResponse response = transactionService.getTransactionHistory(
+                "1000000012",
+                TransactionHistoryCondition.builder().size(2).build()
+        );
+        //then
+        verify(transactionArchiveRepository).findHistory(eq(1L), captor.capture(), eq(2));
+        assertThat(captor.getValue().getCursor().getId()).isEqualTo(3L);
+        assertThat(response.getTransactions()).extracting(TransactionHistoryItem::getId)
+                .containsExactly(3L, 2L);
+        assertThat(TransactionCursor.decode(response.getNextCursor()).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        //given
+        given(accountRepository.findIdByAccountNumber(anyString()))
+                .willReturn(Optional.of(1L));
+        given(transactionRepository.findHistory(anyLong(), any(), anyInt()))
+                .willReturn(List.of(
+                        TransactionHistoryItem.builder().id(1L).transactedAt(LocalDateTime.now()).build()
+                ));
+        //when
+        TransactionHistoryResponse response = transactionService.getTransactionHistory(
+                "1000000012",
+                TransactionHistoryCondition.builder().size(20).build()
+        );
+        //then
+        assertThat(response.getTransactions()).hasSize(1);
+        assertThat(response.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("페이지 크기 초과 - 거래 내역 조회 실패")
+    void getTransactionHistory_InvalidSize() {
+        //given
+        //when
+        assertThatThrownBy(() -> transactionService.getTransactionHistory(
+                "1000000012",
+                TransactionHistoryCondition.builder().size(101).build()
+        ))
+                .isInstanceOf(AccountException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
+        //then
+    }
+}